@@ -1,5 +1,6 @@
 package io.github.edmm.cli;
 
+import io.github.edmm.cli.command.DaemonCommand;
 import io.github.edmm.cli.command.TransformCommand;
 import org.fusesource.jansi.AnsiConsole;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +22,8 @@ import static picocli.CommandLine.usage;
         },
         subcommands = {
                 CommandLine.HelpCommand.class,
-                TransformCommand.class
+                TransformCommand.class,
+                DaemonCommand.class
         }
 )
 @SpringBootApplication
@@ -0,0 +1,18 @@
+package io.github.edmm.cli;
+
+import java.io.File;
+import java.util.List;
+
+import lombok.Value;
+
+@Value
+public class BatchResult {
+
+    private final File input;
+    private final long time;
+    private final List<String> errors;
+
+    public boolean isFailed() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.edmm.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import io.github.edmm.cli.command.DaemonCommand;
+import io.github.edmm.cli.command.TransformCommand;
+import io.github.edmm.core.plugin.ArtifactCopier;
+import io.github.edmm.core.plugin.PluginRegistry;
+import io.github.edmm.core.transformation.OutputMode;
+import io.github.edmm.docker.BuildContextFormat;
+import org.fusesource.jansi.AnsiConsole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import static io.github.edmm.cli.TransformationSettings.ARTIFACTS;
+import static io.github.edmm.cli.TransformationSettings.ARTIFACTS_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.BUILD_CONTEXT;
+import static io.github.edmm.cli.TransformationSettings.BUILD_CONTEXT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.NAMING_SALT;
+import static io.github.edmm.cli.TransformationSettings.NAMING_SALT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.OUTPUT;
+import static io.github.edmm.cli.TransformationSettings.OUTPUT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.PARALLELISM;
+import static io.github.edmm.cli.TransformationSettings.PARALLELISM_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.REPORT;
+import static io.github.edmm.cli.TransformationSettings.REPORT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.THREADS;
+import static io.github.edmm.cli.TransformationSettings.THREADS_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.TIMEOUT;
+import static io.github.edmm.cli.TransformationSettings.TIMEOUT_DEFAULT;
+
+/**
+ * Lightweight entry point, which runs the CLI without starting a Spring application context.
+ * <p>
+ * Plugins are discovered using {@link PluginRegistry#load()}, hence only the plugins of the requested targets are
+ * instantiated. The settings are read from {@code application.properties} and can be overridden by system
+ * properties, e.g., {@code -Dedmm.transformation.threads=4}.
+ */
+public final class Launcher {
+
+    private static final String PROPERTIES = "application.properties";
+    private static final String LOGGING_LEVEL = "logging.level.";
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        Properties properties = loadProperties();
+        configureLogging(properties);
+        AnsiConsole.systemInstall();
+        System.setProperty(Application.PICOCLI_ANSI, String.valueOf(true));
+        PluginService pluginService = new PluginService(PluginRegistry.load());
+        TransformationService transformationService = new TransformationService(pluginService,
+                Integer.parseInt(properties.getProperty(THREADS, THREADS_DEFAULT)),
+                OutputMode.valueOf(properties.getProperty(OUTPUT, OUTPUT_DEFAULT)),
+                Boolean.parseBoolean(properties.getProperty(REPORT, REPORT_DEFAULT)),
+                Long.parseLong(properties.getProperty(TIMEOUT, TIMEOUT_DEFAULT)));
+        transformationService.setParallelism(
+                Integer.parseInt(properties.getProperty(PARALLELISM, PARALLELISM_DEFAULT)));
+        transformationService.setBuildContextFormat(
+                BuildContextFormat.valueOf(properties.getProperty(BUILD_CONTEXT, BUILD_CONTEXT_DEFAULT)));
+        transformationService.setArtifactMode(
+                ArtifactCopier.Mode.valueOf(properties.getProperty(ARTIFACTS, ARTIFACTS_DEFAULT)));
+        transformationService.setNamingSalt(properties.getProperty(NAMING_SALT, NAMING_SALT_DEFAULT));
+        int exitCode;
+        try {
+            Application application = new Application(new Factory(pluginService, transformationService));
+            application.run(args);
+            exitCode = application.getExitCode();
+        } finally {
+            transformationService.shutdown();
+            AnsiConsole.systemUninstall();
+        }
+        System.exit(exitCode);
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = Launcher.class.getClassLoader().getResourceAsStream(PROPERTIES)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + PROPERTIES, e);
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("edmm.") || name.startsWith(LOGGING_LEVEL)) {
+                properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Applies the {@code logging.level.*} settings, which are otherwise handled by Spring Boot.
+     */
+    private static void configureLogging(Properties properties) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+            return;
+        }
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(LOGGING_LEVEL)) {
+                String logger = name.substring(LOGGING_LEVEL.length());
+                Level level = Level.toLevel(properties.getProperty(name).trim(), Level.INFO);
+                context.getLogger("root".equals(logger) ? Logger.ROOT_LOGGER_NAME : logger).setLevel(level);
+            }
+        }
+    }
+
+    private static final class Factory implements CommandLine.IFactory {
+
+        private final PluginService pluginService;
+        private final TransformationService transformationService;
+
+        private Factory(PluginService pluginService, TransformationService transformationService) {
+            this.pluginService = pluginService;
+            this.transformationService = transformationService;
+        }
+
+        @Override
+        public <K> K create(Class<K> cls) throws Exception {
+            if (cls == TransformCommand.class) {
+                TransformCommand command = new TransformCommand();
+                command.setPluginService(pluginService);
+                command.setTransformationService(transformationService);
+                return cls.cast(command);
+            }
+            if (cls == DaemonCommand.class) {
+                DaemonCommand command = new DaemonCommand();
+                command.setFactory(this);
+                command.setPluginService(pluginService);
+                command.setTransformationService(transformationService);
+                return cls.cast(command);
+            }
+            return CommandLine.defaultFactory().create(cls);
+        }
+    }
+}
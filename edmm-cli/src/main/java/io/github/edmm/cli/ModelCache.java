@@ -0,0 +1,41 @@
+package io.github.edmm.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import io.github.edmm.model.DeploymentModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps parsed models in memory, keyed by the absolute path and the SHA-256 hash of the model file. Plugins mutate
+ * models while transforming, hence callers always receive a private copy of the cached model.
+ */
+public class ModelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelCache.class);
+
+    private final Cache<String, DeploymentModel> models;
+
+    public ModelCache(long maximumSize) {
+        this.models = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public DeploymentModel get(File file) throws IOException {
+        File absoluteFile = file.getAbsoluteFile();
+        String key = absoluteFile.getPath() + ":" + Files.asByteSource(absoluteFile).hash(Hashing.sha256());
+        try {
+            return models.get(key, () -> {
+                logger.debug("Parsing model '{}'", absoluteFile);
+                return DeploymentModel.of(absoluteFile);
+            }).copy();
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse model " + absoluteFile, e.getCause());
+        }
+    }
+}
@@ -1,56 +1,329 @@
 package io.github.edmm.cli;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+
+import io.github.edmm.core.plugin.ArtifactCopier;
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.transformation.OutputMode;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.Transformation;
+import io.github.edmm.core.transformation.metrics.DefaultMetrics;
+import io.github.edmm.core.transformation.metrics.MetricsReport;
 import io.github.edmm.core.transformation.support.ExecutionTask;
+import io.github.edmm.core.transformation.support.TransformationHandle;
+import io.github.edmm.docker.BuildContextFormat;
 import io.github.edmm.model.DeploymentModel;
 import lombok.NonNull;
+import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import static io.github.edmm.cli.TransformationSettings.ARTIFACTS;
+import static io.github.edmm.cli.TransformationSettings.ARTIFACTS_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.BUILD_CONTEXT;
+import static io.github.edmm.cli.TransformationSettings.BUILD_CONTEXT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.NAMING_SALT;
+import static io.github.edmm.cli.TransformationSettings.NAMING_SALT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.OUTPUT;
+import static io.github.edmm.cli.TransformationSettings.OUTPUT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.PARALLELISM;
+import static io.github.edmm.cli.TransformationSettings.PARALLELISM_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.REPORT;
+import static io.github.edmm.cli.TransformationSettings.REPORT_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.THREADS;
+import static io.github.edmm.cli.TransformationSettings.THREADS_DEFAULT;
+import static io.github.edmm.cli.TransformationSettings.TIMEOUT;
+import static io.github.edmm.cli.TransformationSettings.TIMEOUT_DEFAULT;
+
 @Service
 public class TransformationService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransformationService.class);
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor;
+    private final ScheduledExecutorService watchdog;
+    private final OutputMode outputMode;
+    private final boolean report;
+    private final long timeout;
 
     private PluginService pluginService;
+    private volatile ModelCache modelCache;
+    private volatile int parallelism = 1;
+    private volatile BuildContextFormat buildContextFormat = BuildContextFormat.DIRECTORY;
+    private volatile ArtifactCopier.Mode artifactMode = ArtifactCopier.Mode.COPY;
+    private volatile String namingSalt;
+
+    public TransformationService(PluginService pluginService, int threads, OutputMode outputMode, boolean report) {
+        this(pluginService, threads, outputMode, report, 0);
+    }
 
+    /**
+     * @param timeout The maximum duration of a single transformation in seconds, {@code 0} disables the timeout
+     */
     @Autowired
-    public TransformationService(PluginService pluginService) {
+    public TransformationService(PluginService pluginService, @Value("${" + THREADS + ":" + THREADS_DEFAULT + "}") int threads,
+                                 @Value("${" + OUTPUT + ":" + OUTPUT_DEFAULT + "}") OutputMode outputMode,
+                                 @Value("${" + REPORT + ":" + REPORT_DEFAULT + "}") boolean report,
+                                 @Value("${" + TIMEOUT + ":" + TIMEOUT_DEFAULT + "}") long timeout) {
         this.pluginService = pluginService;
+        this.outputMode = outputMode;
+        this.report = report;
+        this.timeout = Math.max(0, timeout);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(poolSize);
+        this.watchdog = this.timeout > 0 ? Executors.newSingleThreadScheduledExecutor() : null;
+        logger.debug("Using {} transformation threads", poolSize);
+    }
+
+    /**
+     * Sets the number of threads a single transformation may use to generate independent parts of its output, see
+     * {@link Transformation#getParallelism()}.
+     */
+    @Value("${" + PARALLELISM + ":" + PARALLELISM_DEFAULT + "}")
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Sets the format of the build contexts of generated container images, see {@link BuildContextFormat}.
+     */
+    @Value("${" + BUILD_CONTEXT + ":" + BUILD_CONTEXT_DEFAULT + "}")
+    public void setBuildContextFormat(@NonNull BuildContextFormat buildContextFormat) {
+        this.buildContextFormat = buildContextFormat;
+    }
+
+    /**
+     * Sets the way artifacts are copied into the target directory, see {@link ArtifactCopier.Mode}.
+     */
+    @Value("${" + ARTIFACTS + ":" + ARTIFACTS_DEFAULT + "}")
+    public void setArtifactMode(@NonNull ArtifactCopier.Mode artifactMode) {
+        this.artifactMode = artifactMode;
+    }
+
+    /**
+     * Sets the salt of globally unique names, see {@link Transformation#getNamingSalt()}. An empty salt enables
+     * random names.
+     */
+    @Value("${" + NAMING_SALT + ":" + NAMING_SALT_DEFAULT + "}")
+    public void setNamingSalt(String namingSalt) {
+        this.namingSalt = namingSalt == null || namingSalt.isEmpty() ? null : namingSalt;
+    }
+
+    /**
+     * Keeps parsed models in memory from now on, used by long-running processes.
+     *
+     * @param maximumSize The maximum number of cached models
+     */
+    public void enableModelCache(long maximumSize) {
+        this.modelCache = new ModelCache(maximumSize);
+    }
+
+    /**
+     * Parses the given model file, or returns a copy of the cached model if the model cache is enabled and the file
+     * has not changed.
+     */
+    public DeploymentModel loadModel(File input) throws IOException {
+        if (modelCache != null) {
+            return modelCache.get(input);
+        }
+        return DeploymentModel.of(input);
     }
 
     public Transformation createTransformation(@NonNull DeploymentModel model, @NonNull Platform platform) {
-        return new Transformation(model, platform);
+        Transformation transformation = new Transformation(model, platform);
+        transformation.setParallelism(parallelism);
+        transformation.setBuildContextFormat(buildContextFormat);
+        transformation.setArtifactMode(artifactMode);
+        transformation.setNamingSalt(namingSalt);
+        if (report) {
+            transformation.setMetrics(new DefaultMetrics());
+        }
+        return transformation;
+    }
+
+    /**
+     * Creates one transformation per platform based on a single parsed model. Plugins mutate the model while
+     * transforming (e.g., by marking components as transformed), hence every additional platform is given its
+     * own copy of the model.
+     */
+    public List<Transformation> createTransformations(@NonNull DeploymentModel model, @NonNull List<Platform> platforms) {
+        List<Transformation> transformations = new ArrayList<>();
+        for (int i = 0; i < platforms.size(); i++) {
+            DeploymentModel targetModel = i == 0 ? model : model.copy();
+            transformations.add(createTransformation(targetModel, platforms.get(i)));
+        }
+        return transformations;
     }
 
     public void startTransformation(Transformation transformation, File sourceDirectory, File targetDirectory) {
+        submit(transformation, sourceDirectory, targetDirectory).ifPresent(this::await);
+    }
+
+    /**
+     * Runs the given transformations concurrently and waits until all of them are finished. The output of each
+     * transformation is stored in a directory named after the target platform inside the given output directory.
+     *
+     * @return the final states in the order of the given transformations, a transformation which could not be
+     * started keeps its initial state
+     */
+    public List<Transformation.State> startTransformations(List<Transformation> transformations, File sourceDirectory, File outputDirectory) {
+        List<TransformationHandle> tasks = new ArrayList<>();
+        for (Transformation transformation : transformations) {
+            File targetDirectory = new File(outputDirectory, transformation.getTargetPlatform().getId());
+            submit(transformation, sourceDirectory, targetDirectory).ifPresent(tasks::add);
+        }
+        tasks.forEach(this::await);
+        return transformations.stream().map(Transformation::getState).collect(Collectors.toList());
+    }
+
+    /**
+     * Transforms every given model into all given platforms. Models are processed concurrently by the bounded
+     * transformation pool, the platforms of a single model are processed one after another. The output is stored
+     * in {@code <model directory>/<platform id>/<model name>}, so models sharing a directory do not collide.
+     *
+     * @param progress Invoked whenever a model has been processed
+     * @return the results in the order of the given inputs
+     */
+    public List<BatchResult> startBatch(List<File> inputs, List<Platform> platforms, Runnable progress) {
+        List<Future<BatchResult>> tasks = new ArrayList<>();
+        for (File input : inputs) {
+            tasks.add(executor.submit(() -> {
+                BatchResult result = transformModel(input, platforms);
+                progress.run();
+                return result;
+            }));
+        }
+        List<BatchResult> results = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                results.add(tasks.get(i).get());
+            } catch (Exception e) {
+                logger.error("Error executing batch task", e);
+                results.add(new BatchResult(inputs.get(i), 0, Collections.singletonList(String.valueOf(e.getMessage()))));
+            }
+        }
+        return results;
+    }
+
+    private BatchResult transformModel(File input, List<Platform> platforms) {
+        long time = System.currentTimeMillis();
+        List<String> errors = new ArrayList<>();
+        try {
+            DeploymentModel model = loadModel(input);
+            File sourceDirectory = input.getParentFile();
+            String name = FilenameUtils.getBaseName(input.getName());
+            for (Transformation transformation : createTransformations(model, platforms)) {
+                Platform platform = transformation.getTargetPlatform();
+                Optional<Plugin> plugin = pluginService.findByPlatform(platform);
+                if (!plugin.isPresent()) {
+                    errors.add(String.format("Plugin for given platform '%s' could not be found", platform.getId()));
+                    continue;
+                }
+                File targetDirectory = new File(new File(sourceDirectory, platform.getId()), name);
+                run(new ExecutionTask(plugin.get(), transformation, sourceDirectory, targetDirectory, outputMode));
+                writeReport(transformation, targetDirectory);
+                if (transformation.getState() != Transformation.State.DONE) {
+                    errors.add(String.format("Transformation to %s failed", platform.getName()));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to transform model '{}'", input, e);
+            errors.add(String.valueOf(e.getMessage()));
+        }
+        return new BatchResult(input, System.currentTimeMillis() - time, errors);
+    }
+
+    /**
+     * Submits the transformation to the transformation pool.
+     *
+     * @return a handle to await or cancel the transformation, empty if the transformation cannot be started
+     */
+    public Optional<TransformationHandle> submit(Transformation transformation, File sourceDirectory, File targetDirectory) {
         Platform targetPlatform = transformation.getTargetPlatform();
         Optional<Plugin> plugin = pluginService.findByPlatform(targetPlatform);
         if (!plugin.isPresent()) {
             logger.error("Plugin for given platform '{}' could not be found", targetPlatform.getId());
-            return;
+            return Optional.empty();
         }
-        if (transformation.getState() == Transformation.State.READY) {
-            Future<?> task = executor.submit(
-                    new ExecutionTask(plugin.get(), transformation, sourceDirectory, targetDirectory)
-            );
-            try {
-                task.get();
-            } catch (Exception e) {
-                logger.error("Error executing transformation task", e);
+        if (transformation.getState() != Transformation.State.READY) {
+            return Optional.empty();
+        }
+        ExecutionTask task = new ExecutionTask(plugin.get(), transformation, sourceDirectory, targetDirectory, outputMode);
+        Future<?> future = executor.submit(() -> {
+            run(task);
+            writeReport(transformation, targetDirectory);
+        });
+        return Optional.of(new TransformationHandle(task, future));
+    }
+
+    /**
+     * Executes the given task in the calling thread. If a timeout is configured, the task is canceled once the
+     * timeout has elapsed.
+     */
+    private void run(ExecutionTask task) {
+        ScheduledFuture<?> timer = null;
+        if (watchdog != null) {
+            timer = watchdog.schedule(() -> {
+                logger.warn("Transformation to {} timed out after {} s, canceling",
+                        task.getTransformation().getTargetPlatform().getName(), timeout);
+                task.cancel();
+            }, timeout, TimeUnit.SECONDS);
+        }
+        try {
+            task.call();
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
             }
         }
     }
+
+    /**
+     * Writes the metrics of the given transformation next to its target directory, if enabled.
+     */
+    private void writeReport(Transformation transformation, File targetDirectory) {
+        if (!report) {
+            return;
+        }
+        File file = new File(targetDirectory.getAbsoluteFile().getParentFile(), targetDirectory.getName() + "-report.json");
+        try {
+            new MetricsReport(transformation).write(file);
+        } catch (IOException e) {
+            logger.error("Failed to write metrics report '{}'", file, e);
+        }
+    }
+
+    private void await(TransformationHandle handle) {
+        try {
+            handle.await();
+        } catch (InterruptedException e) {
+            handle.cancel();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package io.github.edmm.cli;
+
+/**
+ * The keys and defaults of the {@code edmm.transformation.*} settings, shared by the Spring configuration of the
+ * {@link TransformationService} and the {@link Launcher}. Defaults are plain strings, as they are used in
+ * {@code @Value} placeholders.
+ */
+public final class TransformationSettings {
+
+    public static final String THREADS = "edmm.transformation.threads";
+    public static final String THREADS_DEFAULT = "0";
+
+    public static final String OUTPUT = "edmm.transformation.output";
+    public static final String OUTPUT_DEFAULT = "DIRECT";
+
+    public static final String REPORT = "edmm.transformation.report";
+    public static final String REPORT_DEFAULT = "false";
+
+    public static final String TIMEOUT = "edmm.transformation.timeout";
+    public static final String TIMEOUT_DEFAULT = "0";
+
+    public static final String PARALLELISM = "edmm.transformation.parallelism";
+    public static final String PARALLELISM_DEFAULT = "1";
+
+    public static final String BUILD_CONTEXT = "edmm.transformation.build-context";
+    public static final String BUILD_CONTEXT_DEFAULT = "DIRECTORY";
+
+    public static final String ARTIFACTS = "edmm.transformation.artifacts";
+    public static final String ARTIFACTS_DEFAULT = "COPY";
+
+    public static final String NAMING_SALT = "edmm.transformation.naming-salt";
+    public static final String NAMING_SALT_DEFAULT = "";
+
+    private TransformationSettings() {
+    }
+}
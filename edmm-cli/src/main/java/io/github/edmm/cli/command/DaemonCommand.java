@@ -0,0 +1,70 @@
+package io.github.edmm.cli.command;
+
+import java.io.PrintWriter;
+import java.util.concurrent.Callable;
+
+import io.github.edmm.cli.PluginService;
+import io.github.edmm.cli.TransformationService;
+import io.github.edmm.cli.daemon.TransformationDaemon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine;
+
+@Component
+@CommandLine.Command(
+        name = "daemon",
+        descriptionHeading = "%n",
+        description = "Starts a daemon keeping plugins, templates and parsed models in memory, "
+                + "which executes transformations forwarded by 'edmm transform --daemon <port>'"
+)
+public class DaemonCommand implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"-p", "--port"}, defaultValue = "" + TransformationDaemon.DEFAULT_PORT,
+            description = "The local port to listen on (default: ${DEFAULT-VALUE})")
+    private int port;
+
+    @CommandLine.Option(names = {"--cache-size"}, defaultValue = "64",
+            description = "The maximum number of cached models (default: ${DEFAULT-VALUE})")
+    private int cacheSize;
+
+    @CommandLine.Option(names = {"--threads"}, defaultValue = "4",
+            description = "The number of requests executed concurrently (default: ${DEFAULT-VALUE})")
+    private int threads;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    private CommandLine.IFactory factory;
+    private PluginService pluginService;
+    private TransformationService transformationService;
+
+    @Override
+    public Integer call() throws Exception {
+        // Initialize all plugins and their templates up front
+        pluginService.getPlugins();
+        transformationService.enableModelCache(cacheSize);
+        TransformationDaemon daemon = new TransformationDaemon(port, factory, threads);
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+        daemon.start();
+        PrintWriter out = spec.commandLine().getOut();
+        out.printf("EDMM daemon listening on port %d, press Ctrl+C to stop%n", daemon.getPort());
+        out.flush();
+        daemon.awaitTermination();
+        return 0;
+    }
+
+    @Autowired
+    public void setFactory(CommandLine.IFactory factory) {
+        this.factory = factory;
+    }
+
+    @Autowired
+    public void setPluginService(PluginService pluginService) {
+        this.pluginService = pluginService;
+    }
+
+    @Autowired
+    public void setTransformationService(TransformationService transformationService) {
+        this.transformationService = transformationService;
+    }
+}
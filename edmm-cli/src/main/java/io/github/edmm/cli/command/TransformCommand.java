@@ -1,68 +1,182 @@
 package io.github.edmm.cli.command;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import io.github.edmm.cli.BatchResult;
 import io.github.edmm.cli.PluginService;
 import io.github.edmm.cli.TransformationService;
+import io.github.edmm.cli.daemon.DaemonClient;
+import io.github.edmm.cli.daemon.DaemonResponse;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.Transformation;
 import io.github.edmm.model.DeploymentModel;
+import me.tongfei.progressbar.ProgressBar;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import picocli.CommandLine;
 
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 @CommandLine.Command(
         name = "transform",
         descriptionHeading = "%n",
-        description = "Starts a transformation to a target technology",
-        customSynopsis = "@|bold edmm transform|@ @|yellow <target>|@ @|yellow <input>|@"
+        description = "Starts a transformation to one or more target technologies",
+        customSynopsis = "@|bold edmm transform|@ @|yellow <target>|@[,@|yellow <target>|@...] @|yellow <input>|@"
 )
 public class TransformCommand implements Callable<Integer> {
 
     @CommandLine.Spec
     private CommandLine.Model.CommandSpec spec;
 
-    private String target;
+    private List<String> targets;
     private File input;
 
+    @CommandLine.Option(names = {"-g", "--glob"}, defaultValue = "**.{yml,yaml}",
+            description = "The pattern used to select model files if the input is a directory (default: ${DEFAULT-VALUE})")
+    private String glob;
+
+    @CommandLine.Option(names = {"--daemon"}, paramLabel = "<port>",
+            description = "Forward the transformation to a daemon started by 'edmm daemon' listening on the given port")
+    private Integer daemonPort;
+
     private TransformationService transformationService;
     private PluginService pluginService;
 
-    @CommandLine.Parameters(arity = "1..1", index = "0", description = "The name of the transformation target")
+    @CommandLine.Parameters(arity = "1..1", index = "0", description = "The comma-separated names of the transformation targets")
     public void setTarget(String target) {
-        List<String> availableTargets = pluginService.getPlugins().stream()
-                .map(p -> p.getPlatform().getId()).collect(Collectors.toList());
-        if (!availableTargets.contains(target)) {
+        List<String> availableTargets = pluginService.getSupportedPlatforms().stream()
+                .map(Platform::getId).sorted().collect(Collectors.toList());
+        List<String> targets = Arrays.stream(target.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (targets.isEmpty() || !availableTargets.containsAll(targets)) {
             String message = String.format("Specified target technology not supported. Valid values are: %s", availableTargets);
             throw new CommandLine.ParameterException(spec.commandLine(), message);
         }
-        this.target = target;
+        this.targets = targets;
     }
 
-    @CommandLine.Parameters(arity = "1..1", index = "1..*", description = "The input EDMM file (YAML)")
+    @CommandLine.Parameters(arity = "1..1", index = "1..*", description = "The input EDMM file (YAML) or a directory containing EDMM files")
     public void setInput(File input) {
-        if (!input.exists() || !input.isFile()) {
-            throw new CommandLine.ParameterException(spec.commandLine(), "An existing file must be specified");
+        if (!input.exists()) {
+            throw new CommandLine.ParameterException(spec.commandLine(), "An existing file or directory must be specified");
         }
         this.input = input;
     }
 
     @Override
-    public Integer call() {
+    public Integer call() throws IOException {
+        if (daemonPort != null) {
+            return forward();
+        }
+        List<Platform> platforms = targets.stream()
+                .map(target -> pluginService.getSupportedPlatforms().stream()
+                        .filter(p -> p.getId().equals(target))
+                        .findFirst()
+                        .orElseThrow(IllegalStateException::new))
+                .collect(Collectors.toList());
+        if (input.isDirectory()) {
+            return transformDirectory(platforms);
+        }
         File sourceDirectory = input.getParentFile();
-        File targetDirectory = new File(sourceDirectory, target);
-        DeploymentModel model = DeploymentModel.of(input);
-        Platform platform = pluginService.getSupportedPlatforms().stream()
-                .filter(p -> p.getId().equals(target))
-                .findFirst()
-                .orElseThrow(IllegalStateException::new);
-        Transformation transformation = transformationService.createTransformation(model, platform);
-        transformationService.startTransformation(transformation, sourceDirectory, targetDirectory);
-        return 42;
+        DeploymentModel model = transformationService.loadModel(input);
+        List<Transformation> transformations = transformationService.createTransformations(model, platforms);
+        List<Transformation.State> states = transformationService.startTransformations(transformations, sourceDirectory, sourceDirectory);
+        return states.stream().allMatch(state -> state == Transformation.State.DONE) ? 42 : 1;
+    }
+
+    private Integer forward() {
+        List<String> arguments = Arrays.asList(String.join(",", targets), input.getAbsolutePath(), "--glob", glob);
+        try {
+            DaemonResponse response = new DaemonClient(daemonPort).transform(arguments);
+            out().print(response.getOutput());
+            out().flush();
+            return response.getExitCode();
+        } catch (IOException e) {
+            out().printf("Failed to forward transformation to daemon on port %d: %s%n", daemonPort, e.getMessage());
+            return 1;
+        }
+    }
+
+    private Integer transformDirectory(List<Platform> platforms) {
+        List<File> inputs = findModels();
+        if (inputs.isEmpty()) {
+            out().printf("No models matching '%s' found in %s%n", glob, input);
+            return 42;
+        }
+        long time = System.currentTimeMillis();
+        List<BatchResult> results;
+        try (ProgressBar progress = new ProgressBar("Transforming", inputs.size())) {
+            results = transformationService.startBatch(inputs, platforms, progress::step);
+        }
+        printSummary(results, System.currentTimeMillis() - time);
+        return results.stream().anyMatch(BatchResult::isFailed) ? 1 : 42;
+    }
+
+    /**
+     * Collects all model files below the input directory matching the glob pattern. Directories named after a
+     * supported platform are skipped, since they contain output of previous transformations.
+     */
+    private List<File> findModels() {
+        Path root = input.toPath();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        Set<String> outputDirectories = pluginService.getSupportedPlatforms().stream()
+                .map(Platform::getId)
+                .collect(Collectors.toSet());
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .map(root::relativize)
+                    .filter(matcher::matches)
+                    .filter(path -> {
+                        for (Path segment : path) {
+                            if (outputDirectories.contains(segment.toString())) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    })
+                    .sorted()
+                    .map(path -> root.resolve(path).toFile())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new CommandLine.ExecutionException(spec.commandLine(), "Failed to scan input directory: " + input, e);
+        }
+    }
+
+    private void printSummary(List<BatchResult> results, long time) {
+        PrintWriter out = out();
+        List<BatchResult> failed = results.stream().filter(BatchResult::isFailed).collect(Collectors.toList());
+        out.printf("%nTransformed %d model(s) in %d ms, %d failed%n", results.size(), time, failed.size());
+        long average = (long) results.stream().mapToLong(BatchResult::getTime).average().orElse(0);
+        results.stream()
+                .max(Comparator.comparingLong(BatchResult::getTime))
+                .ifPresent(slowest -> out.printf("Average: %d ms, slowest: %s (%d ms)%n",
+                        average, slowest.getInput(), slowest.getTime()));
+        for (BatchResult result : failed) {
+            out.printf("FAILED %s (%d ms)%n", result.getInput(), result.getTime());
+            result.getErrors().forEach(error -> out.printf("  %s%n", error));
+        }
+    }
+
+    private PrintWriter out() {
+        return spec.commandLine().getOut();
     }
 
     @Autowired
@@ -0,0 +1,57 @@
+package io.github.edmm.cli.daemon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.github.edmm.core.plugin.Serializer;
+
+/**
+ * Forwards {@code transform} commands to a {@link TransformationDaemon} running on the local machine.
+ */
+public final class DaemonClient {
+
+    private final int port;
+    private final Path tokenDirectory;
+
+    public DaemonClient(int port) {
+        this(port, DaemonToken.DEFAULT_DIRECTORY);
+    }
+
+    DaemonClient(int port, Path tokenDirectory) {
+        this.port = port;
+        this.tokenDirectory = tokenDirectory;
+    }
+
+    /**
+     * @param arguments The arguments of the {@code transform} command, paths must be absolute
+     * @throws IOException if the daemon is not reachable or failed to execute the command
+     */
+    public DaemonResponse transform(List<String> arguments) throws IOException {
+        String token = DaemonToken.read(tokenDirectory, port);
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), port, TransformationDaemon.TRANSFORM_PATH);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", TransformationDaemon.CONTENT_TYPE);
+            connection.setRequestProperty(DaemonToken.HEADER, token);
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                Serializer.JSON.write(new DaemonRequest(arguments), out);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException(String.format("Daemon responded with status %d", connection.getResponseCode()));
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return Serializer.JSON.read(in, DaemonResponse.class);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
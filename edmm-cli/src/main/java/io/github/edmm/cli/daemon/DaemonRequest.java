@@ -0,0 +1,19 @@
+package io.github.edmm.cli.daemon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Arguments of a {@code transform} command forwarded to the daemon. Paths must be absolute.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DaemonRequest {
+
+    private List<String> arguments = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package io.github.edmm.cli.daemon;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DaemonResponse {
+
+    private int exitCode;
+    private String output;
+}
@@ -0,0 +1,76 @@
+package io.github.edmm.cli.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * The secret shared by a {@link TransformationDaemon} and its clients. The daemon writes a random token to a file
+ * readable by the current user only, clients read it and send it with every request. Thereby, other local users
+ * cannot forward transformations, which read and write files with the permissions of the daemon.
+ */
+final class DaemonToken {
+
+    static final String HEADER = "X-EDMM-Token";
+    static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".edmm");
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private DaemonToken() {
+    }
+
+    static Path file(Path directory, int port) {
+        return directory.resolve("daemon-" + port + ".token");
+    }
+
+    /**
+     * Creates a new token for the daemon listening on the given port, replacing the token of a previous daemon.
+     */
+    static String create(Path directory, int port) throws IOException {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Files.createDirectories(directory);
+        Path file = file(directory, port);
+        Files.deleteIfExists(file);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            File created = Files.createFile(file).toFile();
+            if (!created.setReadable(false, false) || !created.setReadable(true, true)
+                    || !created.setWritable(false, false) || !created.setWritable(true, true)) {
+                Files.delete(file);
+                throw new IOException(String.format("Failed to restrict access to token file '%s'", file));
+            }
+        }
+        Files.write(file, token.getBytes(StandardCharsets.UTF_8));
+        return token;
+    }
+
+    /**
+     * @throws IOException if no daemon has created a token for the given port
+     */
+    static String read(Path directory, int port) throws IOException {
+        Path file = file(directory, port);
+        if (!Files.isRegularFile(file)) {
+            throw new IOException(String.format("Token file '%s' not found, is the daemon running?", file));
+        }
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Compares the tokens in constant time.
+     */
+    static boolean matches(String expected, String actual) {
+        return actual != null && MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
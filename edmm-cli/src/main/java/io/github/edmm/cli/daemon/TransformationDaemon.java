@@ -0,0 +1,155 @@
+package io.github.edmm.cli.daemon;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.edmm.cli.command.TransformCommand;
+import io.github.edmm.core.plugin.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+/**
+ * Executes {@code transform} commands forwarded by {@link DaemonClient} inside a long-running JVM.
+ * <p>
+ * The daemon listens on the loopback interface only and accepts JSON requests carrying its token only, see
+ * {@link DaemonToken}. Every request is executed by a new {@link TransformCommand} sharing the services of the
+ * daemon, so plugins, templates and cached models stay in memory between requests.
+ */
+public class TransformationDaemon implements Closeable {
+
+    public static final int DEFAULT_PORT = 8765;
+
+    static final String TRANSFORM_PATH = "/transform";
+    static final String CONTENT_TYPE = "application/json";
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformationDaemon.class);
+
+    private final CommandLine.IFactory factory;
+    private final Path tokenFile;
+    private final String token;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    /**
+     * @param factory Creates the commands executing the requests
+     * @param threads The number of requests executed concurrently
+     */
+    public TransformationDaemon(int port, CommandLine.IFactory factory, int threads) throws IOException {
+        this(port, factory, threads, DaemonToken.DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * @param tokenDirectory The directory to write the token file to
+     */
+    TransformationDaemon(int port, CommandLine.IFactory factory, int threads, Path tokenDirectory) throws IOException {
+        this.factory = factory;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        try {
+            this.token = DaemonToken.create(tokenDirectory, getPort());
+        } catch (IOException e) {
+            server.stop(0);
+            throw e;
+        }
+        this.tokenFile = DaemonToken.file(tokenDirectory, getPort());
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext(TRANSFORM_PATH, this::handle);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Listening on {}", server.getAddress());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Blocks until the daemon has been closed.
+     */
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!DaemonToken.matches(token, exchange.getRequestHeaders().getFirst(DaemonToken.HEADER))) {
+                logger.warn("Rejected request without valid token from {}", exchange.getRemoteAddress());
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+            if (!isJson(exchange.getRequestHeaders().getFirst("Content-Type"))) {
+                exchange.sendResponseHeaders(415, -1);
+                return;
+            }
+            byte[] body;
+            try {
+                DaemonRequest request = Serializer.JSON.read(exchange.getRequestBody(), DaemonRequest.class);
+                body = Serializer.JSON.toString(execute(request)).getBytes(StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                logger.error("Failed to handle request", e);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if the given content type denotes JSON, ignoring parameters like the charset
+     */
+    private static boolean isJson(String contentType) {
+        return contentType != null && CONTENT_TYPE.equalsIgnoreCase(contentType.split(";", 2)[0].trim());
+    }
+
+    private DaemonResponse execute(DaemonRequest request) throws Exception {
+        long time = System.currentTimeMillis();
+        StringWriter output = new StringWriter();
+        PrintWriter writer = new PrintWriter(output);
+        CommandLine commandLine = new CommandLine(factory.create(TransformCommand.class), factory);
+        commandLine.setOut(writer);
+        commandLine.setErr(writer);
+        int exitCode = commandLine.execute(request.getArguments().toArray(new String[0]));
+        writer.flush();
+        logger.info("Executed {} in {} ms", request.getArguments(), System.currentTimeMillis() - time);
+        return new DaemonResponse(exitCode, output.toString());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            Files.deleteIfExists(tokenFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete token file '{}'", tokenFile, e);
+        }
+        terminated.countDown();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.edmm.cli;
+
+import io.github.edmm.core.plugin.ArtifactCopier;
+import io.github.edmm.core.transformation.OutputMode;
+import io.github.edmm.docker.BuildContextFormat;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TransformationSettingsTest {
+
+    @Test
+    public void testDefaultsAreValid() {
+        assertEquals(OutputMode.DIRECT, OutputMode.valueOf(TransformationSettings.OUTPUT_DEFAULT));
+        assertEquals(BuildContextFormat.DIRECTORY, BuildContextFormat.valueOf(TransformationSettings.BUILD_CONTEXT_DEFAULT));
+        assertEquals(ArtifactCopier.Mode.COPY, ArtifactCopier.Mode.valueOf(TransformationSettings.ARTIFACTS_DEFAULT));
+        assertEquals(0, Integer.parseInt(TransformationSettings.THREADS_DEFAULT));
+        assertEquals(1, Integer.parseInt(TransformationSettings.PARALLELISM_DEFAULT));
+        assertEquals(0, Long.parseLong(TransformationSettings.TIMEOUT_DEFAULT));
+    }
+}
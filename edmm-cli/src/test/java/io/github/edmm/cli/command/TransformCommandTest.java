@@ -0,0 +1,154 @@
+package io.github.edmm.cli.command;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.edmm.cli.BatchResult;
+import io.github.edmm.cli.PluginService;
+import io.github.edmm.cli.TransformationService;
+import io.github.edmm.core.plugin.PluginRegistry;
+import io.github.edmm.core.transformation.OutputMode;
+import io.github.edmm.plugins.kubernetes.KubernetesPlugin;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import picocli.CommandLine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TransformCommandTest {
+
+    private static final String MODEL = "---\n" +
+            "version: edm_1_0\n" +
+            "components:\n" +
+            "  ubuntu:\n" +
+            "    type: compute\n" +
+            "component_types:\n" +
+            "  base:\n" +
+            "    extends: null\n" +
+            "  compute:\n" +
+            "    extends: base\n";
+
+    private static final String CYCLIC_MODEL = "---\n" +
+            "version: edm_1_0\n" +
+            "components:\n" +
+            "  a:\n" +
+            "    type: base\n" +
+            "    relations:\n" +
+            "      - depends_on: b\n" +
+            "  b:\n" +
+            "    type: base\n" +
+            "    relations:\n" +
+            "      - depends_on: a\n" +
+            "component_types:\n" +
+            "  base:\n" +
+            "    extends: null\n" +
+            "relation_types:\n" +
+            "  depends_on:\n" +
+            "    extends: null\n";
+
+    private Path directory;
+    private PluginService pluginService;
+    private TransformationService transformationService;
+    private int exitCode;
+
+    @Before
+    public void init() throws Exception {
+        directory = Files.createTempDirectory("edmm-batch-");
+        write("a.yml", MODEL);
+        write("nested/b.yaml", MODEL);
+        write("notes.txt", "not a model");
+        // Output of a previous transformation, must not be picked up as input
+        write("kubernetes/old/c.yml", MODEL);
+        pluginService = new PluginService(PluginRegistry.load());
+        transformationService = new TransformationService(pluginService, 2, OutputMode.DIRECT, false);
+    }
+
+    @After
+    public void destroy() throws Exception {
+        transformationService.shutdown();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void testDefaultGlobSkipsOutputDirectories() {
+        String output = execute("kubernetes", directory.toString());
+        assertTrue(output, output.contains("Transformed 2 model(s)"));
+        assertTrue(Files.isDirectory(directory.resolve("kubernetes/a")));
+        assertTrue(Files.isDirectory(directory.resolve("nested/kubernetes/b")));
+        assertFalse(Files.exists(directory.resolve("kubernetes/old/kubernetes")));
+    }
+
+    @Test
+    public void testCustomGlob() {
+        String output = execute("kubernetes", directory.toString(), "--glob", "*.yml");
+        assertTrue(output, output.contains("Transformed 1 model(s)"));
+        assertFalse(Files.exists(directory.resolve("nested/kubernetes")));
+    }
+
+    @Test
+    public void testNoMatchingModels() {
+        String output = execute("kubernetes", directory.toString(), "--glob", "*.json");
+        assertTrue(output, output.contains("No models matching '*.json' found"));
+    }
+
+    @Test
+    public void testFailuresAreReportedPerModel() throws Exception {
+        File broken = write("broken.yml", "components: [");
+        File model = directory.resolve("a.yml").toFile();
+        List<BatchResult> results = transformationService.startBatch(Arrays.asList(broken, model),
+                Collections.singletonList(KubernetesPlugin.KUBERNETES), () -> {
+                });
+        assertEquals(2, results.size());
+        assertEquals(broken, results.get(0).getInput());
+        assertTrue(results.get(0).isFailed());
+        assertFalse(results.get(0).getErrors().isEmpty());
+        assertEquals(model, results.get(1).getInput());
+        // The broken model does not prevent the transformation of the other one
+        assertTrue(Files.isDirectory(directory.resolve("kubernetes/a")));
+        String output = execute("kubernetes", directory.toString());
+        assertTrue(output, output.contains("FAILED " + broken));
+    }
+
+    @Test
+    public void testFailedTargetFailsSingleModel() throws Exception {
+        File cyclic = write("cyclic/model.yml", CYCLIC_MODEL);
+        execute("chef", cyclic.toString());
+        assertEquals(1, exitCode);
+        execute("kubernetes", directory.resolve("a.yml").toString());
+        assertEquals(42, exitCode);
+    }
+
+    private String execute(String... args) {
+        CommandLine commandLine = new CommandLine(TransformCommand.class, new CommandLine.IFactory() {
+            @Override
+            public <K> K create(Class<K> cls) throws Exception {
+                TransformCommand command = new TransformCommand();
+                command.setPluginService(pluginService);
+                command.setTransformationService(transformationService);
+                return cls.cast(command);
+            }
+        });
+        StringWriter output = new StringWriter();
+        commandLine.setOut(new PrintWriter(output));
+        exitCode = commandLine.execute(args);
+        return output.toString();
+    }
+
+    private File write(String path, String content) throws Exception {
+        Path file = directory.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file.toFile();
+    }
+}
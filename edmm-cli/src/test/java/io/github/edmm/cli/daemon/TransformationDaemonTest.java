@@ -0,0 +1,113 @@
+package io.github.edmm.cli.daemon;
+
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import io.github.edmm.cli.PluginService;
+import io.github.edmm.cli.TransformationService;
+import io.github.edmm.cli.command.TransformCommand;
+import io.github.edmm.core.plugin.PluginRegistry;
+import io.github.edmm.core.transformation.OutputMode;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import picocli.CommandLine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TransformationDaemonTest {
+
+    private Path tokenDirectory;
+    private TransformationService transformationService;
+    private TransformationDaemon daemon;
+
+    @Before
+    public void init() throws Exception {
+        tokenDirectory = Files.createTempDirectory("edmm-daemon-");
+        PluginService pluginService = new PluginService(PluginRegistry.load());
+        transformationService = new TransformationService(pluginService, 1, OutputMode.DIRECT, false);
+        CommandLine.IFactory factory = new CommandLine.IFactory() {
+            @Override
+            public <K> K create(Class<K> cls) throws Exception {
+                TransformCommand command = new TransformCommand();
+                command.setPluginService(pluginService);
+                command.setTransformationService(transformationService);
+                return cls.cast(command);
+            }
+        };
+        daemon = new TransformationDaemon(0, factory, 1, tokenDirectory);
+        daemon.start();
+    }
+
+    @Test
+    public void testForwardedCommand() throws Exception {
+        DaemonClient client = new DaemonClient(daemon.getPort(), tokenDirectory);
+        DaemonResponse response = client.transform(Arrays.asList("unknown", System.getProperty("java.io.tmpdir")));
+        assertEquals(CommandLine.ExitCode.USAGE, response.getExitCode());
+        assertTrue(response.getOutput().contains("Specified target technology not supported"));
+    }
+
+    @Test
+    public void testTokenFileIsPrivate() throws Exception {
+        Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path file = DaemonToken.file(tokenDirectory, daemon.getPort());
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file));
+        daemon.close();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testRejectsRequestsWithoutToken() throws Exception {
+        assertEquals(401, post(null, "application/json"));
+        assertEquals(401, post("invalid", "application/json"));
+    }
+
+    @Test
+    public void testRejectsOtherContentTypes() throws Exception {
+        String token = DaemonToken.read(tokenDirectory, daemon.getPort());
+        assertEquals(415, post(token, "text/plain"));
+        assertEquals(415, post(token, null));
+        assertEquals(200, post(token, "application/json; charset=utf-8"));
+    }
+
+    private int post(String token, String contentType) throws Exception {
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), daemon.getPort(),
+                TransformationDaemon.TRANSFORM_PATH);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            if (token != null) {
+                connection.setRequestProperty(DaemonToken.HEADER, token);
+            }
+            if (contentType != null) {
+                connection.setRequestProperty("Content-Type", contentType);
+            }
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write("{\"arguments\": [\"unknown\"]}".getBytes(StandardCharsets.UTF_8));
+            }
+            return connection.getResponseCode();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @After
+    public void destroy() throws Exception {
+        daemon.close();
+        transformationService.shutdown();
+        FileUtils.deleteDirectory(tokenDirectory.toFile());
+    }
+}
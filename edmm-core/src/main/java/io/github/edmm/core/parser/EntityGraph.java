@@ -92,6 +92,37 @@ public class EntityGraph extends SimpleDirectedGraph<Entity, EntityGraph.Edge> {
         successors.forEach(p -> addEdge(target, p.getLeft(), new Edge(p.getRight(), target, p.getLeft())));
     }
 
+    /**
+     * Creates a deep copy of this graph.
+     * <p>
+     * Entities are bound to the graph they belong to, hence every entity is re-created. Modifications applied to
+     * the copy, e.g., by {@link MappingEntity#setValue}, do not affect this graph.
+     *
+     * @return the copied graph
+     */
+    public EntityGraph copy() {
+        EntityGraph copy = new EntityGraph();
+        Map<EntityId, Entity> entities = new HashMap<>();
+        for (Entity entity : vertexSet()) {
+            Entity copiedEntity;
+            if (ROOT.equals(entity.getId())) {
+                copiedEntity = copy.getEntity(ROOT).orElseThrow(IllegalStateException::new);
+            } else if (entity instanceof ScalarEntity) {
+                copiedEntity = new ScalarEntity(((ScalarEntity) entity).getValue(), entity.getId(), copy);
+            } else if (entity instanceof SequenceEntity) {
+                copiedEntity = new SequenceEntity(entity.getId(), copy);
+            } else {
+                copiedEntity = new MappingEntity(entity.getId(), copy);
+            }
+            copy.addVertex(copiedEntity);
+            entities.put(entity.getId(), copiedEntity);
+        }
+        for (Edge edge : edgeSet()) {
+            copy.addEdge(entities.get(edge.getSource().getId()), entities.get(edge.getTarget().getId()), edge.getName());
+        }
+        return copy;
+    }
+
     public Set<Entity> getChildren(EntityId id) {
         Optional<Entity> entity = getEntity(id);
         if (entity.isPresent()) {
@@ -5,13 +5,22 @@ import java.util.Collections;
 import java.util.List;
 
 import io.github.edmm.core.plugin.support.LifecyclePhaseAccess;
+import io.github.edmm.core.transformation.TransformationContext;
+import io.github.edmm.core.transformation.metrics.Measurement;
+import io.github.edmm.core.transformation.metrics.Metrics;
 
 public abstract class AbstractLifecycle implements PluginLifecycle, LifecyclePhaseAccess {
 
+    public static final String CHECK_ENVIRONMENT = "check_environment";
+    public static final String CHECK_MODEL = "check_model";
+    public static final String PREPARE = "prepare";
+    public static final String TRANSFORMATION = "transformation";
+    public static final String CLEANUP = "cleanup";
+
     private final List<LifecyclePhase> phases;
 
     public AbstractLifecycle() {
-        this.phases = populatePhases();
+        this.phases = Collections.unmodifiableList(populatePhases());
     }
 
     @Override
@@ -34,22 +43,59 @@ public abstract class AbstractLifecycle implements PluginLifecycle, LifecyclePha
         // NOOP
     }
 
-    private List<LifecyclePhase> populatePhases() {
-        List<LifecyclePhase> phases = new ArrayList<>();
-        phases.add(new LifecyclePhase<>("check_environment", this, (e) -> {
+    /**
+     * Creates the phases of this lifecycle. By default, the phases form a chain, each depending on its predecessor.
+     * Lifecycles may override this method to add phases, which declare their dependencies by
+     * {@link LifecyclePhase#dependsOn(LifecyclePhase...)}. Phases must be listed after their dependencies.
+     * <p>
+     * Note that this method is called by the constructor, i.e., before fields of subclasses are initialized.
+     *
+     * @return mutable list of phases
+     */
+    protected List<LifecyclePhase> populatePhases() {
+        LifecyclePhase<PluginLifecycle> checkEnvironment = new LifecyclePhase<>(CHECK_ENVIRONMENT, this, (e) -> {
             if (!e.checkEnvironment()) {
                 throw new Exception("Transformation failed, because the environment check has failed");
             }
-        }));
-        phases.add(new LifecyclePhase<>("check_model", this, (e) -> {
+        });
+        LifecyclePhase<PluginLifecycle> checkModel = new LifecyclePhase<PluginLifecycle>(CHECK_MODEL, this, (e) -> {
             if (!e.checkModel()) {
                 throw new Exception("Transformation failed, because the model check has failed");
             }
-        }));
-        phases.add(new LifecyclePhase<>("prepare", this, PluginLifecycle::prepare));
-        phases.add(new LifecyclePhase<>("transformation", this, PluginLifecycle::transform));
-        phases.add(new LifecyclePhase<>("cleanup", this, PluginLifecycle::cleanup));
-        return Collections.unmodifiableList(phases);
+        }).dependsOn(checkEnvironment);
+        LifecyclePhase<PluginLifecycle> prepare = new LifecyclePhase<PluginLifecycle>(PREPARE, this, PluginLifecycle::prepare)
+                .dependsOn(checkModel);
+        LifecyclePhase<PluginLifecycle> transformation = new LifecyclePhase<PluginLifecycle>(TRANSFORMATION, this, PluginLifecycle::transform)
+                .dependsOn(prepare);
+        LifecyclePhase<PluginLifecycle> cleanup = new LifecyclePhase<PluginLifecycle>(CLEANUP, this, PluginLifecycle::cleanup)
+                .dependsOn(transformation);
+        List<LifecyclePhase> phases = new ArrayList<>();
+        phases.add(checkEnvironment);
+        phases.add(checkModel);
+        phases.add(prepare);
+        phases.add(transformation);
+        phases.add(cleanup);
+        return phases;
+    }
+
+    /**
+     * @return the phase having the given name
+     */
+    protected static LifecyclePhase findPhase(List<LifecyclePhase> phases, String name) {
+        return phases.stream()
+                .filter(phase -> phase.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Phase '%s' not found", name)));
+    }
+
+    /**
+     * Runs the given visit of the model, measured by the metrics of the transformation under the simple class name
+     * of the visitor, see {@link Metrics#VISITOR}.
+     */
+    protected static void visit(TransformationContext context, Object visitor, Runnable visit) {
+        try (Measurement ignored = context.getMetrics().start(Metrics.VISITOR, visitor.getClass().getSimpleName())) {
+            visit.run();
+        }
     }
 
     @Override
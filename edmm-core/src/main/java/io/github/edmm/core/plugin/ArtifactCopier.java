@@ -0,0 +1,211 @@
+package io.github.edmm.core.plugin;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies artifacts from the source into the target directory of a transformation.
+ * <p>
+ * Files are transferred by {@link FileChannel#transferTo}, which lets the operating system copy the data without
+ * passing it through the JVM. Plugins often copy the same artifact several times (e.g., once per stack or compute
+ * node): copying an artifact to a location it has already been copied to is skipped, further copies are made from
+ * the first copy, so that the source is read only once. In {@link Mode#HARD_LINK} mode, further copies of the same
+ * content are hard links to the first copy; if linking is not supported (e.g., across file systems), the file is
+ * copied instead. Links are only created between files of the target directory, never to the source files. Files
+ * left by a previous transformation are kept if they have the size and modification time of their source.
+ * <p>
+ * An instance is meant to be used for a single transformation and is thread-safe. Only the bookkeeping is shared
+ * between threads, files are transferred and linked concurrently.
+ */
+public class ArtifactCopier {
+
+    public enum Mode {
+        COPY,
+        /**
+         * Duplicates are hard links sharing their content, hence copied artifacts must not be modified afterwards.
+         */
+        HARD_LINK
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCopier.class);
+
+    @Getter
+    private final Mode mode;
+
+    private final ConcurrentMap<Path, Set<Path>> copies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Path> contents = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, String> digests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Object> destinationLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong copiedFiles = new AtomicLong();
+    private final AtomicLong linkedFiles = new AtomicLong();
+    private final AtomicLong skippedFiles = new AtomicLong();
+    private final AtomicLong copiedBytes = new AtomicLong();
+
+    public ArtifactCopier(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Copies a file or a directory including its content. Can be called concurrently, only copies to the same
+     * destination file are serialized.
+     */
+    public void copy(Path source, Path target) throws IOException {
+        if (Files.isDirectory(source)) {
+            List<Path> paths;
+            try (Stream<Path> stream = Files.walk(source)) {
+                paths = stream.collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                Path resolved = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(resolved);
+                } else {
+                    copyFile(path, resolved);
+                }
+            }
+        } else {
+            copyFile(source, target);
+        }
+    }
+
+    public long getCopiedFiles() {
+        return copiedFiles.get();
+    }
+
+    public long getLinkedFiles() {
+        return linkedFiles.get();
+    }
+
+    public long getSkippedFiles() {
+        return skippedFiles.get();
+    }
+
+    public long getCopiedBytes() {
+        return copiedBytes.get();
+    }
+
+    private void copyFile(Path source, Path target) throws IOException {
+        Path key = source.toRealPath();
+        Path destination = target.toAbsolutePath().normalize();
+        synchronized (destinationLocks.computeIfAbsent(destination, d -> new Object())) {
+            copyFile(key, destination, copies.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()));
+        }
+    }
+
+    /**
+     * Copies, links or skips a single file. Copies and links are only registered once they are complete, so that
+     * other threads never reuse or link to a file which is still being written.
+     */
+    private void copyFile(Path key, Path destination, Set<Path> targets) throws IOException {
+        if (targets.contains(destination) && Files.exists(destination) && Files.size(destination) == Files.size(key)) {
+            skippedFiles.incrementAndGet();
+            return;
+        }
+        if (isUnchanged(key, destination)) {
+            // Copied by a previous transformation, keep the file untouched
+            if (mode == Mode.HARD_LINK) {
+                contents.putIfAbsent(digest(key), destination);
+            }
+            targets.add(destination);
+            skippedFiles.incrementAndGet();
+            return;
+        }
+        Files.createDirectories(destination.getParent());
+        String digest = null;
+        if (mode == Mode.HARD_LINK) {
+            digest = digest(key);
+            Path origin = contents.get(digest);
+            if (origin != null && !origin.equals(destination) && Files.exists(origin) && link(origin, destination)) {
+                targets.add(destination);
+                linkedFiles.incrementAndGet();
+                return;
+            }
+        }
+        transfer(findCopy(key, targets).orElse(key), destination);
+        targets.add(destination);
+        if (digest != null) {
+            contents.put(digest, destination);
+        }
+        copiedFiles.incrementAndGet();
+    }
+
+    /**
+     * Finds a previous copy of the given source, which is copied instead of the source itself, so that every source
+     * file is read only once. Copies modified since then are ignored.
+     */
+    private static Optional<Path> findCopy(Path source, Set<Path> targets) throws IOException {
+        for (Path target : targets) {
+            if (isUnchanged(source, target)) {
+                return Optional.of(target);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void transfer(Path source, Path target) throws IOException {
+        // Never write through an existing file, it might be a hard link to another copy
+        Files.deleteIfExists(target);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            copiedBytes.addAndGet(size);
+        }
+        Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+    }
+
+    /**
+     * Copies keep the modification time of their source, hence a target having the size and modification time of
+     * its source is considered to be an unchanged copy.
+     */
+    private static boolean isUnchanged(Path source, Path target) throws IOException {
+        return Files.isRegularFile(target)
+                && Files.size(target) == Files.size(source)
+                && Files.getLastModifiedTime(target).equals(Files.getLastModifiedTime(source));
+    }
+
+    private boolean link(Path origin, Path target) {
+        try {
+            Files.deleteIfExists(target);
+            Files.createLink(target, origin);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Failed to link '{}' to '{}', copying instead: {}", target, origin, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Hashes the content of the given source file once per instance, unless it is hashed by several threads at the
+     * same time.
+     */
+    private String digest(Path source) throws IOException {
+        String digest = digests.get(source);
+        if (digest == null) {
+            digest = MoreFiles.asByteSource(source).hash(Hashing.sha256()).toString();
+            digests.putIfAbsent(source, digest);
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.edmm.core.plugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.hash.Hashing;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent record of the files written to a target directory by the previous transformation.
+ * <p>
+ * For every generated file the cache stores the SHA-256 hash of its content, for every copied artifact the size
+ * and modification time of its source. Together with the size and modification time of the file on disk, this
+ * allows to skip files which would be rewritten with identical content. Files modified outside of the framework are
+ * always rewritten. The cache is stored as {@value #FILE_NAME} inside the target directory.
+ */
+public final class BuildCache {
+
+    public static final String FILE_NAME = ".edmm-cache.json";
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildCache.class);
+
+    private final Path directory;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new TreeMap<>();
+
+    private BuildCache(Path directory, Map<String, Entry> previous) {
+        this.directory = directory;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the cache of the given target directory. A missing or unreadable cache results in an empty cache.
+     */
+    public static BuildCache load(Path directory) {
+        Path file = directory.resolve(FILE_NAME);
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                entries.putAll(Serializer.JSON.read(file.toFile(), new TypeReference<Map<String, Entry>>() {
+                }));
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable cache '{}': {}", file, e.getMessage());
+            }
+        }
+        return new BuildCache(directory, entries);
+    }
+
+    public static String hash(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+
+    /**
+     * @return {@code true} if the given file has been written with the same content by the previous transformation
+     * and has not been modified since
+     */
+    public boolean isUnchanged(String path, String hash) {
+        Entry entry = previous.get(path);
+        return entry != null && hash.equals(entry.getHash()) && matchesDisk(path, entry);
+    }
+
+    /**
+     * @return {@code true} if the given artifact has been copied from the same, unmodified source by the previous
+     * transformation and has not been modified since
+     */
+    public boolean isUnchanged(String path, Path source) throws IOException {
+        Entry entry = previous.get(path);
+        return entry != null
+                && source.toString().equals(entry.getSource())
+                && Files.size(source) == entry.getSourceSize()
+                && Files.getLastModifiedTime(source).toMillis() == entry.getSourceModified()
+                && matchesDisk(path, entry);
+    }
+
+    public void recordOutput(String path, String hash) throws IOException {
+        Entry entry = new Entry();
+        entry.setHash(hash);
+        current.put(path, fingerprint(path, entry));
+    }
+
+    public void recordArtifact(String path, Path source) throws IOException {
+        Entry entry = new Entry();
+        entry.setSource(source.toString());
+        entry.setSourceSize(Files.size(source));
+        entry.setSourceModified(Files.getLastModifiedTime(source).toMillis());
+        current.put(path, fingerprint(path, entry));
+    }
+
+    /**
+     * Takes over the entries of the given file, or of all files inside the given directory, which have been left
+     * untouched by the current transformation.
+     */
+    public void keep(String path) {
+        String prefix = path + "/";
+        previous.forEach((file, entry) -> {
+            if (file.equals(path) || file.startsWith(prefix)) {
+                current.putIfAbsent(file, entry);
+            }
+        });
+    }
+
+    /**
+     * @return the files written by the previous transformation which have not been written by the current one, as
+     * stored in the cache file, hence they must be checked before accessing them
+     */
+    public Set<String> getStalePaths() {
+        Set<String> stale = new TreeSet<>(previous.keySet());
+        stale.removeAll(current.keySet());
+        return stale;
+    }
+
+    public void save() throws IOException {
+        Serializer.JSON.write(current, directory.resolve(FILE_NAME).toFile());
+    }
+
+    private boolean matchesDisk(String path, Entry entry) {
+        Path file = directory.resolve(path);
+        try {
+            return Files.isRegularFile(file)
+                    && Files.size(file) == entry.getSize()
+                    && Files.getLastModifiedTime(file).toMillis() == entry.getModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Entry fingerprint(String path, Entry entry) throws IOException {
+        Path file = directory.resolve(path);
+        entry.setSize(Files.size(file));
+        entry.setModified(Files.getLastModifiedTime(file).toMillis());
+        return entry;
+    }
+
+    @Data
+    public static class Entry {
+        private String hash;
+        private String source;
+        private long sourceSize;
+        private long sourceModified;
+        private long size;
+        private long modified;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.edmm.core.plugin;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counts the number of bytes the written characters take in UTF-8. Closing this writer does not close the
+ * underlying writer.
+ */
+class CountingWriter extends FilterWriter {
+
+    private long byteCount;
+
+    CountingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        byteCount += byteCount((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        out.write(cbuf, off, len);
+        for (int i = off; i < off + len; i++) {
+            byteCount += byteCount(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        out.write(str, off, len);
+        for (int i = off; i < off + len; i++) {
+            byteCount += byteCount(str.charAt(i));
+        }
+    }
+
+    @Override
+    public void close() {
+        // The underlying writer is owned by the caller
+    }
+
+    long getByteCount() {
+        return byteCount;
+    }
+
+    private static int byteCount(char c) {
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800 || Character.isSurrogate(c)) {
+            // A surrogate pair takes four bytes in total
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.github.edmm.model.Artifact;
+import io.github.edmm.model.Operation;
+import io.github.edmm.model.Property;
+import io.github.edmm.model.component.RootComponent;
+import io.github.edmm.model.relation.RootRelation;
+import io.github.edmm.model.support.ModelEntity;
+
+/**
+ * SHA-256 fingerprint of the inputs a group of output files is derived from, see
+ * {@link PluginFileAccess#generate(String, String, io.github.edmm.core.plugin.support.OutputGenerator)}.
+ * <p>
+ * Components contribute their name, type, properties, operations, artifacts and outgoing relations. Artifacts
+ * contribute the size and modification time of their files in the source directory instead of their content, so
+ * that a fingerprint is cheap to compute even for large models. An instance can only be hashed once.
+ */
+public final class Fingerprint {
+
+    private final File sourceDirectory;
+    private final Hasher hasher = Hashing.sha256().newHasher();
+
+    public Fingerprint(File sourceDirectory) {
+        this.sourceDirectory = sourceDirectory;
+    }
+
+    public Fingerprint add(String value) {
+        hasher.putString(String.valueOf(value), StandardCharsets.UTF_8).putByte((byte) 0);
+        return this;
+    }
+
+    /**
+     * Adds the entries of the given map in the order of their keys.
+     */
+    public Fingerprint add(Map<String, String> values) {
+        new TreeMap<>(values).forEach((key, value) -> add(key).add(value));
+        return this;
+    }
+
+    public Fingerprint add(Collection<? extends RootComponent> components) {
+        components.forEach(this::add);
+        return this;
+    }
+
+    public Fingerprint add(RootComponent component) {
+        add(component.getName()).add(component.getType());
+        addEntity(component);
+        for (RootRelation relation : component.getRelations()) {
+            add(relation.getName()).add(relation.getTarget());
+            addEntity(relation);
+        }
+        return this;
+    }
+
+    public Fingerprint add(Artifact artifact) {
+        add(artifact.getName()).add(artifact.getValue());
+        File file = new File(sourceDirectory, artifact.getValue());
+        if (file.isDirectory()) {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(file.toPath())) {
+                files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            files.forEach(path -> addFile(path.toFile()));
+        } else if (file.isFile()) {
+            addFile(file);
+        }
+        return this;
+    }
+
+    public String hash() {
+        return hasher.hash().toString();
+    }
+
+    private void addEntity(ModelEntity entity) {
+        for (Property property : new TreeMap<>(entity.getProperties()).values()) {
+            add(property.getName()).add(property.getValue());
+        }
+        for (Operation operation : new TreeMap<>(entity.getOperations()).values()) {
+            add(operation.getName());
+            operation.getArtifacts().forEach(this::add);
+        }
+        entity.getArtifacts().forEach(this::add);
+    }
+
+    private void addFile(File file) {
+        add(sourceDirectory.toPath().relativize(file.toPath()).toString());
+        hasher.putLong(file.length()).putLong(file.lastModified());
+    }
+}
@@ -0,0 +1,367 @@
+package io.github.edmm.core.plugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.github.edmm.core.plugin.support.BinaryContentWriter;
+import io.github.edmm.core.plugin.support.ContentWriter;
+import io.github.edmm.core.transformation.metrics.Measurement;
+import io.github.edmm.core.transformation.metrics.Metrics;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File access keeping the complete output of a transformation in memory.
+ * <p>
+ * Nothing is written to the target directory while the transformation is running. On {@link #close()} the output
+ * is either committed to disk or kept for an in-process caller, which can fetch it by {@link #getFiles()}. A commit
+ * writes the output into a temporary sibling of the target directory, which then replaces the target directory by
+ * a rename. Hence, the target directory either contains the complete output or is left untouched. If the
+ * transformation fails, {@link #abort()} discards the output.
+ * <p>
+ * An incremental commit uses the {@link BuildCache} of the target directory instead: files and artifacts which
+ * are unchanged since the previous transformation are not written at all, files which are no longer generated are
+ * deleted. Artifacts are not read into memory in this mode. Files of output groups skipped by
+ * {@link #generate(String, String, io.github.edmm.core.plugin.support.OutputGenerator)} are kept as they are.
+ */
+public class InMemoryFileAccess extends PluginFileAccess {
+
+    public enum Commit {
+        /**
+         * Keep the output in memory only.
+         */
+        NONE,
+        /**
+         * Replace the target directory atomically.
+         */
+        ATOMIC,
+        /**
+         * Write changed files only.
+         */
+        INCREMENTAL
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryFileAccess.class);
+
+    private final Path targetPath;
+    private final Commit commit;
+    private final Map<Path, ByteArrayOutputStream> files = new TreeMap<>();
+    private final Map<Path, Path> references = new TreeMap<>();
+    private final Map<Path, byte[]> artifacts = new HashMap<>();
+    private final Set<Path> kept = new TreeSet<>();
+
+    /**
+     * @param commit The way the output is written to the target directory on {@link #close()}
+     */
+    public InMemoryFileAccess(File sourceDirectory, File targetDirectory, Commit commit) {
+        this(sourceDirectory, targetDirectory, commit, ArtifactCopier.Mode.COPY);
+    }
+
+    /**
+     * @param commit   The way the output is written to the target directory on {@link #close()}
+     * @param copyMode The way artifacts are copied by an incremental commit
+     */
+    public InMemoryFileAccess(File sourceDirectory, File targetDirectory, Commit commit, ArtifactCopier.Mode copyMode) {
+        super(sourceDirectory, targetDirectory, 0, copyMode);
+        this.targetPath = targetDirectory.getAbsoluteFile().toPath().normalize();
+        this.commit = commit;
+    }
+
+    @Override
+    public void copy(String relativeSourcePath, String relativeTargetPath) throws IOException {
+        File source = new File(getSourceDirectory(), relativeSourcePath);
+        Path target = resolve(relativeTargetPath);
+        if (!source.exists()) {
+            logger.error("Failed to copy '{}': file not found", source.getName());
+            throw new FileNotFoundException();
+        }
+        Path sourcePath = source.toPath();
+        List<Path> sourceFiles;
+        try (Stream<Path> paths = Files.walk(sourcePath)) {
+            sourceFiles = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        synchronized (files) {
+            for (Path file : sourceFiles) {
+                Path destination = target.resolve(sourcePath.relativize(file).toString()).normalize();
+                files.remove(destination);
+                if (commit == Commit.INCREMENTAL) {
+                    references.put(destination, file.toRealPath());
+                } else {
+                    references.remove(destination);
+                    files.put(destination, read(file));
+                }
+            }
+        }
+        getMetrics().increment(Metrics.ARTIFACTS_COPIED);
+        fileWritten(relativeTargetPath);
+    }
+
+    @Override
+    public boolean delete(String relativePath) {
+        Path path = resolve(relativePath);
+        synchronized (files) {
+            files.keySet().removeIf(file -> file.startsWith(path));
+            references.keySet().removeIf(file -> file.startsWith(path));
+            kept.removeIf(file -> file.startsWith(path));
+        }
+        return true;
+    }
+
+    @Override
+    public void append(String relativePath, ContentWriter content) throws IOException {
+        Path path = resolve(relativePath);
+        long bytes;
+        synchronized (files) {
+            Path reference = references.remove(path);
+            if (reference != null) {
+                files.put(path, read(reference));
+            }
+            Writer writer = new OutputStreamWriter(files.computeIfAbsent(path, k -> new ByteArrayOutputStream()),
+                    StandardCharsets.UTF_8);
+            bytes = writeContent(writer, content);
+            writer.flush();
+        }
+        getMetrics().increment(Metrics.BYTES_WRITTEN, bytes);
+        fileWritten(relativePath);
+    }
+
+    /**
+     * Replaces the content of the given file in memory. Unchanged files are detected when the output is committed,
+     * i.e., by an incremental commit.
+     */
+    @Override
+    public boolean write(String relativePath, ContentWriter content) throws IOException {
+        Path path = resolve(relativePath);
+        try (Measurement measurement = getMetrics().start(Metrics.FILE, relativePath)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+            long bytes = writeContent(writer, content);
+            writer.flush();
+            synchronized (files) {
+                references.remove(path);
+                files.put(path, buffer);
+            }
+            measurement.addBytes(bytes);
+            getMetrics().increment(Metrics.BYTES_WRITTEN, bytes);
+        }
+        fileWritten(relativePath);
+        return true;
+    }
+
+    @Override
+    public boolean writeBinary(String relativePath, BinaryContentWriter content) throws IOException {
+        Path path = resolve(relativePath);
+        try (Measurement measurement = getMetrics().start(Metrics.FILE, relativePath)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            content.write(buffer);
+            synchronized (files) {
+                references.remove(path);
+                files.put(path, buffer);
+            }
+            measurement.addBytes(buffer.size());
+            getMetrics().increment(Metrics.BYTES_WRITTEN, buffer.size());
+        }
+        fileWritten(relativePath);
+        return true;
+    }
+
+    /**
+     * Keeps the given file or directory of the previous transformation, used by an incremental commit only.
+     */
+    @Override
+    protected void keep(String relativePath) {
+        Path path = resolve(relativePath);
+        synchronized (files) {
+            kept.add(path);
+        }
+    }
+
+    /**
+     * Returns the absolute path the given file will have once the output has been committed.
+     */
+    @Override
+    public String getAbsolutePath(String relativePath) throws FileNotFoundException {
+        Path path = resolve(relativePath);
+        synchronized (files) {
+            if (files.keySet().stream().anyMatch(file -> file.startsWith(path))
+                    || references.keySet().stream().anyMatch(file -> file.startsWith(path))
+                    || kept.stream().anyMatch(file -> file.startsWith(path) || path.startsWith(file))) {
+                return path.toString();
+            }
+        }
+        throw new FileNotFoundException("File not found");
+    }
+
+    /**
+     * @return snapshot of the current output, keyed by the path relative to the target directory using {@code /}
+     * as separator
+     */
+    public Map<String, byte[]> getFiles() throws IOException {
+        Map<String, byte[]> result = new TreeMap<>();
+        synchronized (files) {
+            for (Map.Entry<Path, ByteArrayOutputStream> entry : files.entrySet()) {
+                result.put(relativize(entry.getKey()), entry.getValue().toByteArray());
+            }
+            for (Map.Entry<Path, Path> entry : references.entrySet()) {
+                result.put(relativize(entry.getKey()), read(entry.getValue()).toByteArray());
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (commit == Commit.ATOMIC) {
+            commitAtomic();
+        } else if (commit == Commit.INCREMENTAL) {
+            commitIncremental();
+        }
+    }
+
+    @Override
+    public void abort() {
+        synchronized (files) {
+            logger.debug("Discarding {} file(s) of failed transformation", files.size() + references.size());
+            files.clear();
+            references.clear();
+            kept.clear();
+        }
+    }
+
+    private void commitIncremental() throws IOException {
+        Files.createDirectories(targetPath);
+        BuildCache cache = BuildCache.load(targetPath);
+        int written = 0;
+        int skipped = 0;
+        synchronized (files) {
+            for (Map.Entry<Path, ByteArrayOutputStream> entry : files.entrySet()) {
+                String path = relativize(entry.getKey());
+                byte[] content = entry.getValue().toByteArray();
+                String hash = BuildCache.hash(content);
+                if (cache.isUnchanged(path, hash)) {
+                    skipped++;
+                } else {
+                    Files.createDirectories(entry.getKey().getParent());
+                    Files.write(entry.getKey(), content);
+                    written++;
+                }
+                cache.recordOutput(path, hash);
+            }
+            for (Map.Entry<Path, Path> entry : references.entrySet()) {
+                String path = relativize(entry.getKey());
+                if (cache.isUnchanged(path, entry.getValue())) {
+                    skipped++;
+                } else {
+                    getArtifactCopier().copy(entry.getValue(), entry.getKey());
+                    written++;
+                }
+                cache.recordArtifact(path, entry.getValue());
+            }
+            for (Path path : kept) {
+                cache.keep(relativize(path));
+            }
+        }
+        Path realTargetPath = targetPath.toRealPath();
+        for (String path : cache.getStalePaths()) {
+            // The cache is read from the target directory, never trust its paths
+            Path file;
+            try {
+                file = resolve(path);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring cache entry '{}' outside of target directory '{}'", path, targetPath);
+                continue;
+            }
+            if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)
+                    && file.getParent().toRealPath().startsWith(realTargetPath)) {
+                Files.delete(file);
+            }
+        }
+        cache.save();
+        if (getOutputIndex() != null) {
+            getOutputIndex().save();
+        }
+        getMetrics().increment(Metrics.FILES_UNCHANGED, skipped);
+        logger.debug("Committed {} file(s) to '{}', {} unchanged file(s) skipped", written, targetPath, skipped);
+    }
+
+    private void commitAtomic() throws IOException {
+        Path parent = targetPath.getParent();
+        Files.createDirectories(parent);
+        Path staging = Files.createTempDirectory(parent, "." + targetPath.getFileName() + "-");
+        Path backup = parent.resolve(staging.getFileName() + ".old");
+        boolean replaced = false;
+        int count;
+        try {
+            synchronized (files) {
+                count = files.size();
+                for (Map.Entry<Path, ByteArrayOutputStream> entry : files.entrySet()) {
+                    Path file = staging.resolve(targetPath.relativize(entry.getKey()).toString());
+                    Files.createDirectories(file.getParent());
+                    Files.write(file, entry.getValue().toByteArray());
+                }
+            }
+            if (Files.exists(targetPath)) {
+                Files.move(targetPath, backup, StandardCopyOption.ATOMIC_MOVE);
+                replaced = true;
+            }
+            Files.move(staging, targetPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Failed to commit output to target directory '{}'", targetPath);
+            if (replaced && !Files.exists(targetPath)) {
+                Files.move(backup, targetPath, StandardCopyOption.ATOMIC_MOVE);
+                replaced = false;
+            }
+            FileUtils.deleteQuietly(staging.toFile());
+            throw e;
+        } finally {
+            if (replaced) {
+                FileUtils.deleteQuietly(backup.toFile());
+            }
+        }
+        logger.debug("Committed {} file(s) to '{}'", count, targetPath);
+    }
+
+    private ByteArrayOutputStream read(Path file) throws IOException {
+        // Every artifact is read only once, no matter how often it is copied
+        byte[] bytes = artifacts.get(file.toRealPath());
+        if (bytes == null) {
+            bytes = Files.readAllBytes(file);
+            artifacts.put(file.toRealPath(), bytes);
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream(bytes.length);
+        content.write(bytes);
+        return content;
+    }
+
+    private String relativize(Path path) {
+        return targetPath.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private Path resolve(String relativePath) {
+        String path = relativePath.replaceAll("^[/\\\\]+", "");
+        Path resolved = targetPath.resolve(path).normalize();
+        if (!resolved.startsWith(targetPath)) {
+            throw new IllegalArgumentException(String.format("Path '%s' is outside of the target directory", relativePath));
+        }
+        return resolved;
+    }
+}
@@ -1,5 +1,9 @@
 package io.github.edmm.core.plugin;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Predicate;
 
 import io.github.edmm.core.plugin.support.ExecutionFunction;
@@ -10,6 +14,13 @@ import lombok.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * A phase of a plugin lifecycle.
+ * <p>
+ * Phases declare the phases they depend on. A phase is executed once all of its dependencies are done or have been
+ * skipped; phases which do not depend on each other may be executed concurrently. If a phase fails, all phases
+ * depending on it (directly or transitively) are skipped.
+ */
 @Getter
 public class LifecyclePhase<LifecycleT extends PluginLifecycle> {
 
@@ -18,8 +29,9 @@ public class LifecyclePhase<LifecycleT extends PluginLifecycle> {
     private final String name;
     private final LifecyclePhaseAccess phaseAccess;
     private final ExecutionFunction<LifecycleT> function;
+    private final List<LifecyclePhase> dependencies = new ArrayList<>();
 
-    private State state = State.PENDING;
+    private volatile State state = State.PENDING;
     private Predicate<TransformationContext> predicate = (c) -> true;
 
     public LifecyclePhase(@NonNull String name, @NonNull LifecyclePhaseAccess phaseAccess, @NonNull ExecutionFunction<LifecycleT> function) {
@@ -28,7 +40,41 @@ public class LifecyclePhase<LifecycleT extends PluginLifecycle> {
         this.function = function;
     }
 
-    public void setState(State state) {
+    /**
+     * Adds the given phases as dependencies of this phase.
+     *
+     * @return this phase
+     */
+    public LifecyclePhase<LifecycleT> dependsOn(LifecyclePhase... phases) {
+        dependencies.addAll(Arrays.asList(phases));
+        return this;
+    }
+
+    public List<LifecyclePhase> getDependencies() {
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * @return {@code true} if this phase depends on the given phase, directly or transitively
+     */
+    public boolean isSuccessorOf(LifecyclePhase phase) {
+        for (LifecyclePhase dependency : dependencies) {
+            if (dependency == phase || dependency.isSuccessorOf(phase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if all dependencies are done or have been skipped
+     */
+    public boolean isReady() {
+        return dependencies.stream()
+                .allMatch(dependency -> dependency.getState() == State.DONE || dependency.getState() == State.SKIPPED);
+    }
+
+    public synchronized void setState(State state) {
         if (this.state == state) return;
         logger.debug(String.format("%-20s  %-10s ==> %s", "Phase '" + this.name + "':", this.state, state));
         this.state = state;
@@ -61,13 +107,9 @@ public class LifecyclePhase<LifecycleT extends PluginLifecycle> {
     }
 
     private void skipSuccessors() {
-        boolean skip = true;
         for (LifecyclePhase phase : phaseAccess.getLifecyclePhases()) {
-            if (phase == this) {
-                skip = false;
-            }
-            if (!skip) {
-                skip();
+            if (phase.isSuccessorOf(this) && (phase.getState() == State.PENDING || phase.getState() == State.SKIPPING)) {
+                phase.skip();
             }
         }
     }
@@ -0,0 +1,141 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent record of which output files have been generated from which inputs by the previous transformation.
+ * <p>
+ * Plugins generate their output in groups, e.g., the Dockerfile and artifacts of a single container. Every group is
+ * identified by a key and recorded together with the {@link Fingerprint} of its inputs and the files written while
+ * generating it. A group whose inputs are unchanged and whose files still exist does not have to be generated again.
+ * Files are attributed to the group generated by the current thread, hence a generator must not write from other
+ * threads. The index is stored as {@value #FILE_NAME} inside the target directory and is discarded as a whole if
+ * the version (e.g., of the plugin) has changed.
+ */
+public final class OutputIndex {
+
+    public static final String FILE_NAME = ".edmm-index.json";
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputIndex.class);
+
+    private final Path directory;
+    private final String version;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new TreeMap<>();
+    private final ThreadLocal<Entry> recording = new ThreadLocal<>();
+
+    private OutputIndex(Path directory, String version, Map<String, Entry> previous) {
+        this.directory = directory;
+        this.version = version;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the index of the given target directory. A missing or unreadable index, or an index written by another
+     * version, results in an empty index.
+     */
+    public static OutputIndex load(Path directory, String version) {
+        Path file = directory.resolve(FILE_NAME);
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                Document document = Serializer.JSON.read(file.toFile(), Document.class);
+                if (Objects.equals(version, document.getVersion())) {
+                    entries.putAll(document.getOutputs());
+                } else {
+                    logger.debug("Ignoring index '{}' of version '{}'", file, document.getVersion());
+                }
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable index '{}': {}", file, e.getMessage());
+            }
+        }
+        return new OutputIndex(directory, version, entries);
+    }
+
+    /**
+     * @return {@code true} if the given group has been generated from the same inputs by the previous
+     * transformation and all of its files still exist
+     */
+    public boolean isUpToDate(String key, String inputs) {
+        Entry entry = previous.get(key);
+        return entry != null && inputs.equals(entry.getInputs())
+                && entry.getFiles().stream().allMatch(file -> Files.exists(directory.resolve(file)));
+    }
+
+    /**
+     * Takes over the given group of the previous transformation.
+     *
+     * @return the files of the group, relative to the target directory
+     */
+    public synchronized Set<String> keep(String key) {
+        Entry entry = previous.get(key);
+        if (entry == null) {
+            return Collections.emptySet();
+        }
+        current.put(key, entry);
+        return entry.getFiles();
+    }
+
+    /**
+     * Starts recording the files written by the current thread for the given group.
+     */
+    public synchronized void begin(String key, String inputs) {
+        Entry entry = new Entry();
+        entry.setInputs(inputs);
+        current.put(key, entry);
+        recording.set(entry);
+    }
+
+    public void end() {
+        recording.remove();
+    }
+
+    /**
+     * Attributes the given file to the group generated by the current thread, if any.
+     */
+    public void record(String relativePath) {
+        Entry entry = recording.get();
+        if (entry != null) {
+            synchronized (this) {
+                entry.getFiles().add(normalize(relativePath));
+            }
+        }
+    }
+
+    public synchronized void save() throws IOException {
+        Document document = new Document();
+        document.setVersion(version);
+        document.setOutputs(current);
+        Serializer.JSON.write(document, directory.resolve(FILE_NAME).toFile());
+    }
+
+    private String normalize(String relativePath) {
+        String path = relativePath.replace('\\', '/').replaceAll("^/+", "");
+        return directory.relativize(directory.resolve(path).normalize()).toString().replace(File.separatorChar, '/');
+    }
+
+    @Data
+    public static class Document {
+        private String version;
+        private Map<String, Entry> outputs = new TreeMap<>();
+    }
+
+    @Data
+    public static class Entry {
+        private String inputs;
+        private Set<String> files = new TreeSet<>();
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.edmm.core.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public abstract class ParallelHelper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelHelper.class);
+
+    /**
+     * Runs the given action for every item using up to the given number of threads. With a parallelism of one (or a
+     * single item) the items are processed sequentially by the calling thread.
+     * <p>
+     * The action must only modify state belonging to its item. In parallel mode, all items are processed even if
+     * one of them fails. The failure of the first failed item in the order of the given list is then rethrown,
+     * failures of further items are added as suppressed, so that the outcome does not depend on scheduling.
+     *
+     * @throws CancellationException if the calling thread is interrupted while waiting
+     */
+    public static <T> void forEach(@NonNull List<T> items, int parallelism, @NonNull Consumer<? super T> action) {
+        int threads = Math.min(parallelism, items.size());
+        if (threads <= 1) {
+            items.forEach(action);
+            return;
+        }
+        logger.debug("Processing {} items using {} threads", items.size(), threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (T item : items) {
+                tasks.add(executor.submit(() -> action.accept(item)));
+            }
+            RuntimeException failure = null;
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    RuntimeException cause = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+                    if (failure == null) {
+                        failure = cause;
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for parallel tasks");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
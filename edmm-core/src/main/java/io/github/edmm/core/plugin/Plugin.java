@@ -1,9 +1,23 @@
 package io.github.edmm.core.plugin;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import io.github.edmm.core.transformation.Platform;
+import io.github.edmm.core.transformation.Transformation;
 import io.github.edmm.core.transformation.TransformationContext;
+import io.github.edmm.core.transformation.metrics.Measurement;
+import io.github.edmm.core.transformation.metrics.Metrics;
 import lombok.Getter;
 import lombok.NonNull;
 import org.slf4j.Logger;
@@ -27,27 +41,143 @@ public abstract class Plugin<LifecycleT extends AbstractLifecycle> {
         // noop
     }
 
+    /**
+     * Executes the lifecycle phases in the order of their dependencies. Phases becoming ready at the same time are
+     * executed concurrently. If a phase fails, its successors are skipped, while independent phases are still
+     * executed; the first failure is rethrown afterwards.
+     * <p>
+     * The cancellation of the transformation is checked before every set of ready phases. A canceled transformation
+     * is aborted like a failed one and a {@link CancellationException} is thrown.
+     */
     public void transform(TransformationContext context) throws Exception {
         long time = System.currentTimeMillis();
         LifecycleT lifecycle = getLifecycle(context);
         List<LifecyclePhase> phases = lifecycle.getLifecyclePhases();
         int taskCount = countExecutionPhases(context, phases);
         logger.debug("This transformation has {} phases", taskCount);
-        for (int i = 0; i < phases.size(); i++) {
-            @SuppressWarnings("unchecked")
-            LifecyclePhase<LifecycleT> phase = (LifecyclePhase<LifecycleT>) phases.get(i);
-            if (phase.shouldExecute(context)) {
-                logger.debug("Executing phase '{}' ({} of {})", phase.getName(), (i + 1), taskCount);
-                phase.execute(lifecycle);
-            } else {
-                phase.skip();
-                logger.debug("Skipping phase '{}' ({} of {})", phase.getName(), (i + 1), taskCount);
+        Metrics metrics = context.getMetrics();
+        metrics.increment(Metrics.COMPONENTS, context.getModel().getComponents().size());
+        metrics.increment(Metrics.RELATIONS, context.getModel().getRelations().size());
+        Transformation transformation = context.getTransformation();
+        AtomicInteger finished = new AtomicInteger();
+        ExecutorService executor = null;
+        Exception failure = null;
+        try (Measurement total = metrics.start(Metrics.TRANSFORMATION, platform.getId())) {
+            List<LifecyclePhase> pending = new ArrayList<>(phases);
+            while (!pending.isEmpty()) {
+                try {
+                    transformation.checkCanceled();
+                } catch (CancellationException e) {
+                    failure = merge(failure, e);
+                    break;
+                }
+                List<LifecyclePhase<LifecycleT>> ready = new ArrayList<>();
+                for (Iterator<LifecyclePhase> it = pending.iterator(); it.hasNext(); ) {
+                    @SuppressWarnings("unchecked")
+                    LifecyclePhase<LifecycleT> phase = (LifecyclePhase<LifecycleT>) it.next();
+                    if (phase.getState() == LifecyclePhase.State.SKIPPED) {
+                        // Successor of a failed phase
+                        it.remove();
+                        logger.debug("Skipping phase '{}' ({} of {})", phase.getName(), phases.indexOf(phase) + 1, taskCount);
+                        transformation.fireProgress(finished.incrementAndGet() * 100 / phases.size());
+                    } else if (phase.isReady()) {
+                        it.remove();
+                        if (phase.shouldExecute(context)) {
+                            ready.add(phase);
+                        } else {
+                            phase.skip();
+                            logger.debug("Skipping phase '{}' ({} of {})", phase.getName(), phases.indexOf(phase) + 1, taskCount);
+                            transformation.fireProgress(finished.incrementAndGet() * 100 / phases.size());
+                        }
+                    }
+                }
+                if (ready.isEmpty()) {
+                    if (pending.stream().noneMatch(LifecyclePhase::isReady)
+                            && pending.stream().noneMatch(phase -> phase.getState() == LifecyclePhase.State.SKIPPED)) {
+                        throw new IllegalStateException("Lifecycle phases have unresolvable dependencies: " + pending.stream()
+                                .map(LifecyclePhase::getName).collect(Collectors.joining(", ")));
+                    }
+                    continue;
+                }
+                if (ready.size() > 1 && executor == null) {
+                    executor = Executors.newCachedThreadPool();
+                }
+                List<Future<?>> tasks = new ArrayList<>();
+                for (LifecyclePhase<LifecycleT> phase : ready) {
+                    logger.debug("Executing phase '{}' ({} of {})", phase.getName(), phases.indexOf(phase) + 1, taskCount);
+                    Callable<Void> task = () -> {
+                        transformation.firePhaseStarted(phase.getName());
+                        try (Measurement ignored = metrics.start(Metrics.PHASE, phase.getName())) {
+                            phase.execute(lifecycle);
+                        } finally {
+                            transformation.firePhaseFinished(phase.getName(), phase.getState());
+                            transformation.fireProgress(finished.incrementAndGet() * 100 / phases.size());
+                        }
+                        return null;
+                    };
+                    if (ready.size() == 1) {
+                        failure = execute(task, failure);
+                    } else {
+                        tasks.add(executor.submit(task));
+                    }
+                }
+                for (Future<?> task : tasks) {
+                    failure = await(task, failure);
+                }
             }
+        } finally {
+            if (executor != null && transformation.isCancellationRequested()) {
+                executor.shutdownNow();
+            } else if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        if (failure != null) {
+            try {
+                context.getFileAccess().abort();
+            } catch (IOException suppressed) {
+                failure.addSuppressed(suppressed);
+            }
+            throw failure;
+        }
+        // Flush or commit the output once the cleanup phase has finished
+        try (Measurement ignored = metrics.start(Metrics.PHASE, "commit")) {
+            context.getFileAccess().close();
         }
         time = System.currentTimeMillis() - time;
         logger.info("Transformation finished after {} ms", time);
     }
 
+    private static Exception execute(Callable<Void> task, Exception failure) {
+        try {
+            task.call();
+            return failure;
+        } catch (Exception e) {
+            return merge(failure, e);
+        }
+    }
+
+    private static Exception await(Future<?> task, Exception failure) {
+        try {
+            task.get();
+            return failure;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            return merge(failure, cause instanceof Exception ? (Exception) cause : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return merge(failure, e);
+        }
+    }
+
+    private static Exception merge(Exception failure, Exception e) {
+        if (failure == null) {
+            return e;
+        }
+        failure.addSuppressed(e);
+        return failure;
+    }
+
     private int countExecutionPhases(TransformationContext context, List<? extends LifecyclePhase> phases) {
         return (int) phases.stream().filter(e -> e.shouldExecute(context)).count();
     }
@@ -1,32 +1,122 @@
 package io.github.edmm.core.plugin;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.io.MoreFiles;
+import io.github.edmm.core.plugin.support.BinaryContentWriter;
+import io.github.edmm.core.plugin.support.ContentWriter;
+import io.github.edmm.core.plugin.support.OutputGenerator;
+import io.github.edmm.core.transformation.metrics.Measurement;
+import io.github.edmm.core.transformation.metrics.Metrics;
 import io.github.edmm.utils.Consts;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Access to the source and target directory of a transformation.
+ * <p>
+ * In buffered mode, {@link #append(String, String)} keeps a writer per target file open instead of opening and
+ * closing the file on every call. At most {@code maxOpenWriters} writers are kept open, the least recently used one
+ * is closed when the limit is exceeded. Buffered data is written to disk at the latest on {@link #close()}, which
+ * is called by the plugin once the lifecycle has finished.
+ */
 @Getter
-public class PluginFileAccess {
+public class PluginFileAccess implements Closeable {
+
+    public static final int DEFAULT_MAX_OPEN_WRITERS = 64;
 
     private static final Logger logger = LoggerFactory.getLogger(PluginFileAccess.class);
 
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-r--r--");
+
     private final File sourceDirectory;
     private final File targetDirectory;
+    private final int maxOpenWriters;
+    private final ArtifactCopier artifactCopier;
+
+    /**
+     * Discards all metrics by default, see {@link io.github.edmm.core.transformation.Transformation#getMetrics()}.
+     */
+    @Setter
+    @NonNull
+    private Metrics metrics = Metrics.NONE;
+
+    /**
+     * Notified with the relative target path after a file has been written or copied.
+     */
+    @Setter
+    private Consumer<String> writeListener = path -> {
+    };
+
+    /**
+     * Enables the incremental generation of output groups, see {@link #generate(String, String, OutputGenerator)}.
+     */
+    @Setter
+    private OutputIndex outputIndex;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<File, BufferedWriter> writers = new LinkedHashMap<>(16, 0.75f, true);
 
     public PluginFileAccess(File sourceDirectory, File targetDirectory) {
+        this(sourceDirectory, targetDirectory, 0);
+    }
+
+    /**
+     * @param maxOpenWriters The maximum number of writers kept open, {@code 0} disables buffering
+     */
+    public PluginFileAccess(File sourceDirectory, File targetDirectory, int maxOpenWriters) {
+        this(sourceDirectory, targetDirectory, maxOpenWriters, ArtifactCopier.Mode.COPY);
+    }
+
+    /**
+     * @param maxOpenWriters The maximum number of writers kept open, {@code 0} disables buffering
+     * @param copyMode       The way artifacts are copied into the target directory
+     */
+    public PluginFileAccess(File sourceDirectory, File targetDirectory, int maxOpenWriters, ArtifactCopier.Mode copyMode) {
         this.sourceDirectory = sourceDirectory;
         this.targetDirectory = targetDirectory;
+        this.maxOpenWriters = Math.max(0, maxOpenWriters);
+        this.artifactCopier = new ArtifactCopier(copyMode);
         logger.debug("Requesting file access:");
         logger.debug("> [source] {}", sourceDirectory);
         logger.debug("> [target] {}", targetDirectory);
     }
 
+    public boolean isBuffered() {
+        return maxOpenWriters > 0;
+    }
+
     /**
      * Copies a file from the source directory to the target directory
      *
@@ -41,11 +131,10 @@ public class PluginFileAccess {
             throw new FileNotFoundException();
         }
         try {
-            if (source.isDirectory()) {
-                FileUtils.copyDirectory(source, target);
-            } else if (source.isFile()) {
-                FileUtils.copyFile(source, target);
-            }
+            release(target);
+            artifactCopier.copy(source.toPath(), target.toPath());
+            metrics.increment(Metrics.ARTIFACTS_COPIED);
+            fileWritten(relativeTargetPath);
         } catch (IOException e) {
             logger.error("Failed to copy from '{}' to '{}'", source, target, e);
             throw e;
@@ -69,6 +158,12 @@ public class PluginFileAccess {
      */
     public boolean delete(String relativePath) {
         File file = new File(targetDirectory, relativePath);
+        try {
+            release(file);
+        } catch (IOException e) {
+            logger.error("Failed to close writer of '{}'", file, e);
+            return false;
+        }
         if (file.isDirectory()) {
             try {
                 FileUtils.deleteDirectory(file);
@@ -89,12 +184,259 @@ public class PluginFileAccess {
      * @param data         The string to append
      */
     public void append(String relativePath, String data) throws IOException {
+        append(relativePath, writer -> writer.write(data));
+    }
+
+    /**
+     * Appends the content produced by the given writer function to a file, creating the file if it does not exist
+     * in the target directory. The content is streamed into the file, i.e., it is never held in memory as a whole.
+     * Like {@link #append(String, String)}, a line separator is appended.
+     *
+     * @param relativePath The relative path inside the target directory
+     * @param content      Writes the content, must not close the given writer
+     */
+    public void append(String relativePath, ContentWriter content) throws IOException {
         File file = new File(targetDirectory, relativePath);
+        // Files are appended to line by line (e.g., scripts), hence appends are counted but not measured
         try {
-            FileUtils.writeStringToFile(file, data + Consts.NL, StandardCharsets.UTF_8, true);
+            long bytes;
+            if (isBuffered()) {
+                synchronized (writers) {
+                    bytes = writeContent(getWriter(file), content);
+                }
+            } else {
+                try (Writer writer = newWriter(file)) {
+                    bytes = writeContent(writer, content);
+                }
+            }
+            metrics.increment(Metrics.BYTES_WRITTEN, bytes);
+            fileWritten(relativePath);
+        } catch (IOException e) {
+            logger.error("Failed to write data to file '{}'", file);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a string to a file, replacing its previous content, see {@link #write(String, ContentWriter)}.
+     *
+     * @param relativePath The relative path inside the target directory
+     * @param data         The string to write
+     * @return {@code true} if the file has been written, {@code false} if its content was unchanged
+     */
+    public boolean write(String relativePath, String data) throws IOException {
+        return write(relativePath, writer -> writer.write(data));
+    }
+
+    /**
+     * Writes the content produced by the given writer function to a file, replacing its previous content. Like
+     * {@link #append(String, String)}, a line separator is appended.
+     * <p>
+     * The content is streamed into a temporary file next to the target file, which replaces the target file only if
+     * their SHA-256 hashes differ. An unchanged file is left untouched including its modification time, so that
+     * tools watching the output (e.g., image builds or {@code terraform plan}) do not see spurious changes.
+     *
+     * @param relativePath The relative path inside the target directory
+     * @param content      Writes the content, must not close the given writer
+     * @return {@code true} if the file has been written, {@code false} if its content was unchanged
+     */
+    public boolean write(String relativePath, ContentWriter content) throws IOException {
+        return writeBinary(relativePath, out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeContent(writer, content);
+            writer.flush();
+        });
+    }
+
+    /**
+     * Writes the binary content produced by the given function to a file, replacing its previous content. Like
+     * {@link #write(String, ContentWriter)}, an unchanged file is left untouched.
+     *
+     * @param relativePath The relative path inside the target directory
+     * @param content      Writes the content, must not close the given stream
+     * @return {@code true} if the file has been written, {@code false} if its content was unchanged
+     */
+    public boolean writeBinary(String relativePath, BinaryContentWriter content) throws IOException {
+        File file = new File(targetDirectory, relativePath);
+        Path target = file.getAbsoluteFile().toPath();
+        Path temp = null;
+        try (Measurement measurement = metrics.start(Metrics.FILE, relativePath)) {
+            release(file);
+            Files.createDirectories(target.getParent());
+            // A unique temporary file, the same file may be written concurrently by different generators
+            temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+            long bytes;
+            HashCode hash;
+            try (CountingOutputStream counting = new CountingOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)));
+                 HashingOutputStream out = new HashingOutputStream(Hashing.sha256(), counting)) {
+                content.write(out);
+                out.flush();
+                bytes = counting.getCount();
+                hash = out.hash();
+            }
+            if (Files.isRegularFile(target) && Files.size(target) == bytes
+                    && MoreFiles.asByteSource(target).hash(Hashing.sha256()).equals(hash)) {
+                logger.debug("Skipping unchanged file '{}'", target);
+                metrics.increment(Metrics.FILES_UNCHANGED);
+                if (outputIndex != null) {
+                    outputIndex.record(relativePath);
+                }
+                return false;
+            }
+            // Temporary files are readable by their owner only, keep the permissions of the replaced file instead
+            if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temp, Files.isRegularFile(target)
+                        ? Files.getPosixFilePermissions(target) : FILE_PERMISSIONS);
+            }
+            // Never write through an existing file, it might be a hard link to another copy
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            measurement.addBytes(bytes);
+            metrics.increment(Metrics.BYTES_WRITTEN, bytes);
+            fileWritten(relativePath);
+            return true;
         } catch (IOException e) {
             logger.error("Failed to write data to file '{}'", file);
             throw e;
+        } finally {
+            if (temp != null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Runs the given generator, unless the group of output files it generated in the previous transformation is up
+     * to date, i.e., the fingerprint of its inputs is unchanged. The files of a skipped group are kept as they are.
+     * Without an {@link OutputIndex}, the generator is always run.
+     *
+     * @param key       Identifies the group, e.g., by the name of the container or component it is generated for
+     * @param inputs    The fingerprint of all inputs the group is derived from, see {@link Fingerprint}
+     * @param generator Generates the files of the group, using the current thread only
+     * @return {@code true} if the generator has been run
+     */
+    public boolean generate(String key, String inputs, OutputGenerator generator) throws IOException {
+        if (outputIndex == null) {
+            generator.generate();
+            return true;
+        }
+        if (outputIndex.isUpToDate(key, inputs)) {
+            logger.debug("Skipping up-to-date output '{}'", key);
+            outputIndex.keep(key).forEach(this::keep);
+            metrics.increment(Metrics.OUTPUTS_SKIPPED);
+            return false;
+        }
+        outputIndex.begin(key, inputs);
+        try {
+            generator.generate();
+        } finally {
+            outputIndex.end();
+        }
+        return true;
+    }
+
+    /**
+     * Called for every file or directory of a skipped output group, which is left untouched in the target directory.
+     *
+     * @param relativePath The relative path inside the target directory
+     */
+    protected void keep(String relativePath) {
+        // Nothing to do, the file is already in place
+    }
+
+    /**
+     * Called after data has been written to or copied into the given file.
+     */
+    protected void fileWritten(String relativePath) {
+        if (outputIndex != null) {
+            outputIndex.record(relativePath);
+        }
+        writeListener.accept(relativePath);
+    }
+
+    static long writeContent(Writer writer, ContentWriter content) throws IOException {
+        CountingWriter counting = new CountingWriter(writer);
+        content.write(counting);
+        counting.write(Consts.NL);
+        return counting.getByteCount();
+    }
+
+    /**
+     * Writes all buffered data to disk and closes all open writers. The file access can still be used afterwards,
+     * writers are reopened on demand.
+     *
+     * @throws IOException if at least one writer could not be closed, further failures are added as suppressed
+     */
+    @Override
+    public void close() throws IOException {
+        List<BufferedWriter> open;
+        synchronized (writers) {
+            open = new ArrayList<>(writers.values());
+            writers.clear();
+        }
+        IOException failure = null;
+        for (BufferedWriter writer : open) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            logger.error("Failed to write buffered data to target directory '{}'", targetDirectory);
+            throw failure;
+        }
+    }
+
+    /**
+     * Called instead of {@link #close()} if the transformation has failed. Output already written to the target
+     * directory is kept, hence buffered data is written as well.
+     */
+    public void abort() throws IOException {
+        close();
+    }
+
+    private BufferedWriter getWriter(File file) throws IOException {
+        BufferedWriter writer = writers.get(file);
+        if (writer == null) {
+            if (writers.size() >= maxOpenWriters) {
+                Iterator<BufferedWriter> eldest = writers.values().iterator();
+                BufferedWriter evicted = eldest.next();
+                eldest.remove();
+                evicted.close();
+            }
+            writer = newWriter(file);
+            writers.put(file, writer);
+        }
+        return writer;
+    }
+
+    private static BufferedWriter newWriter(File file) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        return Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Closes all open writers of the given file or of files contained in the given directory, so that their
+     * content is complete before the file system is accessed directly.
+     */
+    private void release(File file) throws IOException {
+        synchronized (writers) {
+            String prefix = file.getAbsolutePath() + File.separator;
+            Iterator<Map.Entry<File, BufferedWriter>> it = writers.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<File, BufferedWriter> entry = it.next();
+                String path = entry.getKey().getAbsolutePath();
+                if (path.equals(file.getAbsolutePath()) || path.startsWith(prefix)) {
+                    it.remove();
+                    entry.getValue().close();
+                }
+            }
         }
     }
 
@@ -121,6 +463,11 @@ public class PluginFileAccess {
      */
     public String getAbsolutePath(String relativePath) throws FileNotFoundException {
         File file = new File(targetDirectory, relativePath);
+        try {
+            release(file);
+        } catch (IOException e) {
+            logger.error("Failed to close writer of '{}'", file, e);
+        }
         if (file.exists()) {
             return file.getAbsolutePath();
         } else {
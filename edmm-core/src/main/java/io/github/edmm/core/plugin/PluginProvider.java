@@ -0,0 +1,24 @@
+package io.github.edmm.core.plugin;
+
+import java.util.List;
+
+import io.github.edmm.core.transformation.Platform;
+
+/**
+ * Service provider interface to discover plugins without instantiating them.
+ * <p>
+ * Implementations are registered in {@code META-INF/services/io.github.edmm.core.plugin.PluginProvider} and are
+ * loaded by {@link PluginRegistry#load()}.
+ */
+public interface PluginProvider {
+
+    /**
+     * @return the platforms of all plugins offered by this provider, must not instantiate any plugin
+     */
+    List<Platform> getPlatforms();
+
+    /**
+     * Creates the plugin of the given platform, which is one of {@link #getPlatforms()}.
+     */
+    Plugin createPlugin(Platform platform);
+}
@@ -0,0 +1,99 @@
+package io.github.edmm.core.plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import io.github.edmm.core.transformation.Platform;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the available plugins, keyed by platform id.
+ * <p>
+ * Plugins discovered by {@link #load()} are instantiated lazily, i.e., only a plugin which is actually requested
+ * runs its constructor and {@link Plugin#init()}. Every plugin is instantiated at most once.
+ */
+public final class PluginRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PluginRegistry.class);
+
+    private final Map<String, Platform> platforms = new LinkedHashMap<>();
+    private final Map<String, Supplier<Plugin>> plugins = new LinkedHashMap<>();
+
+    private PluginRegistry() {
+    }
+
+    /**
+     * Discovers all plugins using the registered {@link PluginProvider} services.
+     */
+    public static PluginRegistry load() {
+        return load(PluginRegistry.class.getClassLoader());
+    }
+
+    public static PluginRegistry load(ClassLoader classLoader) {
+        PluginRegistry registry = new PluginRegistry();
+        for (PluginProvider provider : ServiceLoader.load(PluginProvider.class, classLoader)) {
+            for (Platform platform : provider.getPlatforms()) {
+                registry.register(platform, Suppliers.memoize(() -> provider.createPlugin(platform)));
+            }
+        }
+        logger.debug("Discovered {} plugins", registry.platforms.size());
+        return registry;
+    }
+
+    /**
+     * Creates a registry of already instantiated plugins.
+     */
+    public static PluginRegistry of(@NonNull List<Plugin> plugins) {
+        PluginRegistry registry = new PluginRegistry();
+        for (Plugin plugin : plugins) {
+            registry.register(plugin.getPlatform(), () -> plugin);
+        }
+        return registry;
+    }
+
+    private void register(Platform platform, Supplier<Plugin> plugin) {
+        if (platforms.containsKey(platform.getId())) {
+            logger.error("Found duplicate plugin identifier '{}'", platform.getId());
+            throw new IllegalArgumentException("The platform id '" + platform.getId() + "' is not unique");
+        }
+        platforms.put(platform.getId(), platform);
+        plugins.put(platform.getId(), plugin);
+    }
+
+    public Set<Platform> getPlatforms() {
+        return new LinkedHashSet<>(platforms.values());
+    }
+
+    public Optional<Platform> findPlatform(String id) {
+        return Optional.ofNullable(platforms.get(id));
+    }
+
+    /**
+     * Returns the plugin of the given platform, instantiating it if necessary.
+     */
+    public Optional<Plugin> findByPlatformId(String id) {
+        Supplier<Plugin> plugin = plugins.get(id);
+        return plugin == null ? Optional.empty() : Optional.of(plugin.get());
+    }
+
+    /**
+     * Returns all plugins, instantiating all plugins which have not been requested so far.
+     */
+    public List<Plugin> getPlugins() {
+        List<Plugin> result = new ArrayList<>();
+        for (Supplier<Plugin> plugin : plugins.values()) {
+            result.add(plugin.get());
+        }
+        return result;
+    }
+}
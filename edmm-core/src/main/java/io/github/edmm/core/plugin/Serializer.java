@@ -0,0 +1,105 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.github.edmm.core.transformation.TransformationException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pre-configured, reusable serializer for JSON and YAML output and input, e.g., of caches and indexes.
+ * <p>
+ * A serializer wraps an immutable {@link ObjectWriter} and {@link ObjectReader}, hence a single instance can be
+ * shared by all plugins and concurrent transformations. Mappers should be created once, e.g., as a constant, since
+ * their construction is expensive. Streaming methods never close the given target or source.
+ */
+@Getter
+public final class Serializer {
+
+    /**
+     * Pretty printed JSON. Map entries are ordered by their keys, so that the output is stable.
+     */
+    public static final Serializer JSON = new Serializer(new ObjectMapper()
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.INDENT_OUTPUT, true));
+
+    /**
+     * YAML using the default settings of the YAML factory, e.g., as used for Kubernetes manifests.
+     */
+    public static final Serializer YAML = new Serializer(new ObjectMapper(new YAMLFactory()));
+
+    private static final Logger logger = LoggerFactory.getLogger(Serializer.class);
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    public Serializer(@NonNull ObjectMapper mapper) {
+        this.writer = mapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        this.reader = mapper.reader()
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    /**
+     * @throws TransformationException if the given value cannot be serialized
+     */
+    public String toString(Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize '{}'", value.getClass().getSimpleName(), e);
+            throw new TransformationException(e);
+        }
+    }
+
+    public void write(Object value, Writer target) throws IOException {
+        writer.writeValue(target, value);
+    }
+
+    public void write(Object value, OutputStream target) throws IOException {
+        writer.writeValue(target, value);
+    }
+
+    public void write(Object value, File target) throws IOException {
+        writer.writeValue(target, value);
+    }
+
+    public <T> T read(InputStream source, Class<T> type) throws IOException {
+        return reader.forType(type).readValue(source);
+    }
+
+    public <T> T read(File source, Class<T> type) throws IOException {
+        return reader.forType(type).readValue(source);
+    }
+
+    public <T> T read(File source, TypeReference<T> type) throws IOException {
+        return reader.forType(type).readValue(source);
+    }
+
+    /**
+     * Serializes the given value directly into a file of the target directory, replacing the file unless its
+     * content is unchanged.
+     *
+     * @see PluginFileAccess#write(String, io.github.edmm.core.plugin.support.ContentWriter)
+     */
+    public void write(PluginFileAccess fileAccess, String relativePath, Object value) throws IOException {
+        fileAccess.write(relativePath, target -> write(value, target));
+    }
+}
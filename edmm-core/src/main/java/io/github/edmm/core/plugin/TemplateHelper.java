@@ -4,9 +4,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import freemarker.cache.StrongCacheStorage;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import freemarker.template.TemplateException;
 import freemarker.template.TemplateExceptionHandler;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.utils.Consts;
@@ -15,11 +18,17 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Helps with template creation tasks using the freemarker library
+ * <p>
+ * Configurations for classpath templates are shared process-wide, keyed by the loading class and the base path.
+ * A freemarker configuration is thread-safe once set up, hence all transformations reuse the same parsed templates.
+ * Plugins may parse their templates eagerly on initialization by {@link #preload(Class, String, String...)}.
  */
 public abstract class TemplateHelper {
 
     private static final Logger logger = LoggerFactory.getLogger(TemplateHelper.class);
 
+    private static final Map<String, Configuration> CONFIGURATIONS = new ConcurrentHashMap<>();
+
     public static Configuration fromFile(File file) {
         Configuration cfg = new Configuration(Configuration.VERSION_2_3_29);
         try {
@@ -36,9 +45,31 @@ public abstract class TemplateHelper {
         return cfg;
     }
 
+    /**
+     * Returns the shared configuration loading templates relative to the given class and base path. The returned
+     * configuration must not be modified.
+     */
     public static Configuration forClasspath(Class clazz, String basePath) {
+        return CONFIGURATIONS.computeIfAbsent(clazz.getName() + ":" + basePath, key -> createConfiguration(clazz, basePath));
+    }
+
+    /**
+     * Parses the given templates of a classpath location, so that transformations do not pay the parse cost.
+     */
+    public static void preload(Class clazz, String basePath, String... names) {
+        Configuration cfg = forClasspath(clazz, basePath);
+        for (String name : names) {
+            getTemplate(cfg, name);
+        }
+        logger.debug("Preloaded {} template(s) from '{}'", names.length, basePath);
+    }
+
+    private static Configuration createConfiguration(Class clazz, String basePath) {
         Configuration cfg = new Configuration(Configuration.VERSION_2_3_29);
         cfg.setClassForTemplateLoading(clazz, basePath);
+        // Classpath templates do not change at runtime, keep parsed templates and skip modification checks
+        cfg.setCacheStorage(new StrongCacheStorage());
+        cfg.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
         cfg.setDefaultEncoding("UTF-8");
         cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
         cfg.setLogTemplateExceptions(false);
@@ -70,4 +101,26 @@ public abstract class TemplateHelper {
         }
         return sw.toString();
     }
+
+    /**
+     * Renders the given template directly into a file of the target directory, without building the output as a
+     * string first. Unlike {@link #toString(Template, Map)}, rendering errors are propagated. An existing file is
+     * replaced, unless its content is unchanged.
+     *
+     * @throws TransformationException if the template cannot be processed
+     */
+    public static void write(PluginFileAccess fileAccess, String relativePath, Template template, Map<String, Object> data) throws IOException {
+        fileAccess.write(relativePath, writer -> {
+            try {
+                template.process(data, writer);
+            } catch (TemplateException e) {
+                logger.error("Failed to process template '{}'", template.getName(), e);
+                throw new TransformationException(String.format("Failed to process template '%s'", template.getName()), e);
+            }
+        });
+    }
+
+    public static void write(PluginFileAccess fileAccess, String relativePath, Configuration cfg, String name, Map<String, Object> data) throws IOException {
+        write(fileAccess, relativePath, getTemplate(cfg, name), data);
+    }
 }
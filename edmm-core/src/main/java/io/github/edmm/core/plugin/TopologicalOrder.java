@@ -0,0 +1,131 @@
+package io.github.edmm.core.plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.model.component.RootComponent;
+import io.github.edmm.model.relation.RootRelation;
+import lombok.NonNull;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.CycleDetector;
+
+/**
+ * Deployment order of a topology, computed once per model.
+ * <p>
+ * Relations point from a dependent component to its dependency, hence dependencies come first. Components are
+ * partitioned into levels: level {@code 0} contains all components without dependencies, level {@code n} all
+ * components whose dependencies are located in levels below {@code n}. Components of the same level are
+ * independent of each other and can be deployed concurrently. Within a level components are sorted by name,
+ * which makes the order deterministic.
+ */
+public final class TopologicalOrder {
+
+    private static final Comparator<RootComponent> BY_NAME = Comparator.comparing(RootComponent::getName);
+
+    private final Set<RootComponent> cycleComponents;
+    private final List<List<RootComponent>> levels = new ArrayList<>();
+    private final List<RootComponent> order = new ArrayList<>();
+    private final Map<RootComponent, Integer> levelMap = new HashMap<>();
+
+    public TopologicalOrder(@NonNull Graph<RootComponent, RootRelation> topology) {
+        this.cycleComponents = Collections.unmodifiableSet(new CycleDetector<>(topology).findCycles());
+        if (cycleComponents.isEmpty()) {
+            initLevels(topology);
+        }
+    }
+
+    private void initLevels(Graph<RootComponent, RootRelation> topology) {
+        Map<RootComponent, Integer> pendingDependencies = new HashMap<>();
+        List<RootComponent> level = new ArrayList<>();
+        for (RootComponent component : topology.vertexSet()) {
+            int outDegree = topology.outDegreeOf(component);
+            pendingDependencies.put(component, outDegree);
+            if (outDegree == 0) {
+                level.add(component);
+            }
+        }
+        while (!level.isEmpty()) {
+            level.sort(BY_NAME);
+            List<RootComponent> nextLevel = new ArrayList<>();
+            for (RootComponent component : level) {
+                levelMap.put(component, levels.size());
+                for (RootRelation relation : topology.incomingEdgesOf(component)) {
+                    RootComponent dependent = topology.getEdgeSource(relation);
+                    if (pendingDependencies.merge(dependent, -1, Integer::sum) == 0) {
+                        nextLevel.add(dependent);
+                    }
+                }
+            }
+            order.addAll(level);
+            levels.add(Collections.unmodifiableList(level));
+            level = nextLevel;
+        }
+    }
+
+    public boolean hasCycles() {
+        return !cycleComponents.isEmpty();
+    }
+
+    /**
+     * @return all components participating in a cycle, empty if the topology is acyclic
+     */
+    public Set<RootComponent> getCycleComponents() {
+        return cycleComponents;
+    }
+
+    /**
+     * @return unmodifiable list of all components, dependencies first
+     */
+    public List<RootComponent> getOrder() {
+        requireAcyclic();
+        return Collections.unmodifiableList(order);
+    }
+
+    /**
+     * Restricts the global order to the given components, e.g., the components of a single stack. Since the
+     * global order respects all relations, the result is a valid order of every subgraph.
+     *
+     * @return mutable snapshot of the given components, dependencies first
+     */
+    public List<RootComponent> getOrder(Collection<RootComponent> components) {
+        requireAcyclic();
+        Set<RootComponent> lookup = components instanceof Set ? (Set<RootComponent>) components : new LinkedHashSet<>(components);
+        return order.stream().filter(lookup::contains).collect(Collectors.toList());
+    }
+
+    /**
+     * @return unmodifiable list of levels, each containing components which can be processed concurrently
+     */
+    public List<List<RootComponent>> getLevels() {
+        requireAcyclic();
+        return Collections.unmodifiableList(levels);
+    }
+
+    public int getLevel(RootComponent component) {
+        requireAcyclic();
+        Integer level = levelMap.get(component);
+        if (level == null) {
+            throw new IllegalArgumentException(String.format("Component '%s' is not part of the topology", component.getName()));
+        }
+        return level;
+    }
+
+    /**
+     * @throws TransformationException naming the components involved, if the topology contains a cycle
+     */
+    public void requireAcyclic() {
+        if (hasCycles()) {
+            String names = cycleComponents.stream().map(RootComponent::getName).sorted().collect(Collectors.joining(", "));
+            throw new TransformationException("The given topology is not acyclic, cycle involves: " + names);
+        }
+    }
+}
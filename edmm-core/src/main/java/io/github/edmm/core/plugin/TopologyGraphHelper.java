@@ -95,4 +95,19 @@ public abstract class TopologyGraphHelper {
             return Optional.empty();
         }
     }
+
+    public static Optional<Compute> resolveHostingComputeComponent(TopologyIndex<RootComponent, RootRelation> index, RootComponent component) {
+        Optional<RootComponent> optionalComponent = index.getTargets(component, HostedOn.class).stream().findFirst();
+        if (optionalComponent.isPresent()) {
+            RootComponent hostingComponent = optionalComponent.get();
+            if (hostingComponent instanceof Compute) {
+                return Optional.of((Compute) hostingComponent);
+            } else {
+                return resolveHostingComputeComponent(index, hostingComponent);
+            }
+        } else {
+            // Leaf reached
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package io.github.edmm.core.plugin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.NonNull;
+import org.jgrapht.Graph;
+
+/**
+ * Per-relation-type adjacency lists of a graph.
+ * <p>
+ * Every edge is registered under its concrete class and all of its super classes, e.g., a {@code ConnectsTo}
+ * relation is reachable by {@code ConnectsTo}, {@code DependsOn} and {@code RootRelation}. Queries are therefore
+ * direct map reads and follow the same {@code isInstance} semantics as {@link TopologyGraphHelper}.
+ * <p>
+ * The index is a snapshot: edges added to the graph after construction are not reflected.
+ */
+public final class TopologyIndex<V, E> {
+
+    private final Map<Class<?>, Map<V, List<E>>> outgoingEdges = new HashMap<>();
+    private final Map<Class<?>, Map<V, List<E>>> incomingEdges = new HashMap<>();
+    private final Map<Class<?>, Map<V, Set<V>>> targets = new HashMap<>();
+    private final Map<Class<?>, Map<V, Set<V>>> sources = new HashMap<>();
+
+    public TopologyIndex(@NonNull Graph<V, E> graph) {
+        for (E edge : graph.edgeSet()) {
+            V source = graph.getEdgeSource(edge);
+            V target = graph.getEdgeTarget(edge);
+            for (Class<?> type = edge.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+                register(outgoingEdges, type, source, edge);
+                register(incomingEdges, type, target, edge);
+                targets.computeIfAbsent(type, k -> new HashMap<>())
+                        .computeIfAbsent(source, k -> new LinkedHashSet<>())
+                        .add(target);
+                sources.computeIfAbsent(type, k -> new HashMap<>())
+                        .computeIfAbsent(target, k -> new LinkedHashSet<>())
+                        .add(source);
+            }
+        }
+    }
+
+    /**
+     * Fetch all of the dependencies of the given source connected by the given relation type.
+     *
+     * @return unmodifiable view of the targets of all matching outgoing edges
+     */
+    public Set<V> getTargets(V source, Class<? extends E> type) {
+        return lookupVertices(targets, type, source);
+    }
+
+    /**
+     * Fetch all of the dependents of the given target connected by the given relation type (reverse lookup).
+     *
+     * @return unmodifiable view of the sources of all matching incoming edges
+     */
+    public Set<V> getSources(V target, Class<? extends E> type) {
+        return lookupVertices(sources, type, target);
+    }
+
+    /**
+     * Fetch all outgoing edges of the given source having the given relation type.
+     *
+     * @return unmodifiable view of the matching outgoing edges
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends E> List<T> getOutgoingEdges(V source, Class<T> type) {
+        return (List<T>) (List<?>) lookupEdges(outgoingEdges, type, source);
+    }
+
+    /**
+     * Fetch all incoming edges of the given target having the given relation type.
+     *
+     * @return unmodifiable view of the matching incoming edges
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends E> List<T> getIncomingEdges(V target, Class<T> type) {
+        return (List<T>) (List<?>) lookupEdges(incomingEdges, type, target);
+    }
+
+    /**
+     * Fetch all vertices reachable from the given source by following edges of the given relation type.
+     *
+     * @return mutable snapshot of the transitive targets in breadth-first order, excluding the source itself
+     */
+    public Set<V> getTransitiveTargets(V source, Class<? extends E> type) {
+        return closure(targets, type, source);
+    }
+
+    /**
+     * Fetch all vertices the given target is reachable from by following edges of the given relation type.
+     *
+     * @return mutable snapshot of the transitive sources in breadth-first order, excluding the target itself
+     */
+    public Set<V> getTransitiveSources(V target, Class<? extends E> type) {
+        return closure(sources, type, target);
+    }
+
+    private Set<V> closure(Map<Class<?>, Map<V, Set<V>>> adjacency, Class<?> type, V start) {
+        Set<V> result = new LinkedHashSet<>();
+        Deque<V> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            for (V next : lookupVertices(adjacency, type, queue.poll())) {
+                if (!next.equals(start) && result.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static <V, E> void register(Map<Class<?>, Map<V, List<E>>> adjacency, Class<?> type, V vertex, E edge) {
+        adjacency.computeIfAbsent(type, k -> new HashMap<>())
+                .computeIfAbsent(vertex, k -> new ArrayList<>())
+                .add(edge);
+    }
+
+    private static <V> Set<V> lookupVertices(Map<Class<?>, Map<V, Set<V>>> adjacency, Class<?> type, V vertex) {
+        Set<V> result = adjacency.getOrDefault(type, Collections.emptyMap()).get(vertex);
+        return result == null ? Collections.emptySet() : Collections.unmodifiableSet(result);
+    }
+
+    private static <V, E> List<E> lookupEdges(Map<Class<?>, Map<V, List<E>>> adjacency, Class<?> type, V vertex) {
+        List<E> result = adjacency.getOrDefault(type, Collections.emptyMap()).get(vertex);
+        return result == null ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.edmm.core.plugin.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes binary content directly into a file of the target directory, see
+ * {@link io.github.edmm.core.plugin.PluginFileAccess#writeBinary(String, BinaryContentWriter)}.
+ */
+@FunctionalInterface
+public interface BinaryContentWriter {
+
+    void write(OutputStream out) throws IOException;
+}
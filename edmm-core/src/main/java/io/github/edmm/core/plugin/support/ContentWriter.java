@@ -0,0 +1,14 @@
+package io.github.edmm.core.plugin.support;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes content directly into a file of the target directory, see
+ * {@link io.github.edmm.core.plugin.PluginFileAccess#append(String, ContentWriter)}.
+ */
+@FunctionalInterface
+public interface ContentWriter {
+
+    void write(Writer writer) throws IOException;
+}
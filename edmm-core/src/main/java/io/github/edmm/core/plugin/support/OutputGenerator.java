@@ -0,0 +1,13 @@
+package io.github.edmm.core.plugin.support;
+
+import java.io.IOException;
+
+/**
+ * Generates a group of output files, see
+ * {@link io.github.edmm.core.plugin.PluginFileAccess#generate(String, String, OutputGenerator)}.
+ */
+@FunctionalInterface
+public interface OutputGenerator {
+
+    void generate() throws IOException;
+}
@@ -0,0 +1,23 @@
+package io.github.edmm.core.transformation;
+
+/**
+ * The way the output of a transformation is written to its target directory.
+ */
+public enum OutputMode {
+
+    /**
+     * Write directly into the target directory while transforming.
+     */
+    DIRECT,
+
+    /**
+     * Keep the output in memory and replace the target directory atomically once the transformation succeeded.
+     */
+    ATOMIC,
+
+    /**
+     * Keep the output in memory and write only files which changed since the previous transformation. Plugins skip
+     * generating output whose inputs (e.g., the components of a container) have not changed at all.
+     */
+    INCREMENTAL
+}
@@ -1,28 +1,197 @@
 package io.github.edmm.core.transformation;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import io.github.edmm.core.plugin.ArtifactCopier;
+import io.github.edmm.core.plugin.LifecyclePhase;
+import io.github.edmm.core.transformation.metrics.Metrics;
+import io.github.edmm.docker.BuildContextFormat;
 import io.github.edmm.model.DeploymentModel;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * A transformation of a model into a target platform.
+ * <p>
+ * The state is changed atomically and only along the transitions {@code READY -> TRANSFORMING -> DONE | ERROR}
+ * or to {@code CANCELED} from any non-final state. Cancellation is cooperative: {@link #cancel()} only records the
+ * request, which is checked between lifecycle phases, see {@link #checkCanceled()}. Listeners are notified in the
+ * thread causing the event, hence they must be thread-safe.
+ */
 @Getter
-@Setter
 public class Transformation {
 
+    private static final Logger logger = LoggerFactory.getLogger(Transformation.class);
+
     private final DeploymentModel model;
     private final Platform targetPlatform;
 
-    private State state = State.READY;
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<State> state = new AtomicReference<>(State.READY);
+    @Getter(AccessLevel.NONE)
+    private final List<TransformationListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean cancellationRequested;
+    /**
+     * Maximum number of threads a plugin may use to generate independent parts of the output, e.g., the files of
+     * different containers. The default of one generates the output sequentially.
+     */
+    @Setter
+    private volatile int parallelism = 1;
+    /**
+     * How plugins generating container images write the build context of every image.
+     */
+    @Setter
+    @NonNull
+    private volatile BuildContextFormat buildContextFormat = BuildContextFormat.DIRECTORY;
+    /**
+     * How artifacts are copied into the target directory.
+     */
+    @Setter
+    @NonNull
+    private volatile ArtifactCopier.Mode artifactMode = ArtifactCopier.Mode.COPY;
+    /**
+     * Records the performance metrics of this transformation. Measuring is not free, hence metrics are discarded
+     * unless set, e.g., to {@link io.github.edmm.core.transformation.metrics.DefaultMetrics} if a report has been
+     * requested. Must be set before the transformation is started.
+     */
+    @Setter
+    @NonNull
+    private volatile Metrics metrics = Metrics.NONE;
+    /**
+     * Salt of names which must be globally unique, e.g., of S3 buckets. If set, such names are derived from the salt
+     * and the content of the model, so that repeated transformations produce identical output. Otherwise, random
+     * names are used.
+     */
+    @Setter
+    private volatile String namingSalt;
 
     public Transformation(@NonNull DeploymentModel model, @NonNull Platform targetPlatform) {
         this.model = model;
         this.targetPlatform = targetPlatform;
     }
 
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Changes the state if the transition from the current state is allowed.
+     *
+     * @throws IllegalStateException if the transition is not allowed
+     */
+    public void setState(@NonNull State next) {
+        State current;
+        do {
+            current = state.get();
+            if (!current.canTransitionTo(next)) {
+                throw new IllegalStateException(String.format("Illegal state transition %s -> %s", current, next));
+            }
+        } while (!state.compareAndSet(current, next));
+        fireStateChanged(current, next);
+    }
+
+    /**
+     * Changes the state only if the current state equals the expected one.
+     *
+     * @return {@code true} if the state has been changed
+     */
+    public boolean transition(@NonNull State expected, @NonNull State next) {
+        if (!expected.canTransitionTo(next) || !state.compareAndSet(expected, next)) {
+            return false;
+        }
+        fireStateChanged(expected, next);
+        return true;
+    }
+
+    /**
+     * Requests the cancellation of this transformation. A transformation which has not been started yet is
+     * canceled immediately, a running one stops at the next check.
+     */
+    public void cancel() {
+        cancellationRequested = true;
+        transition(State.READY, State.CANCELED);
+    }
+
+    /**
+     * @throws CancellationException if the cancellation of this transformation has been requested
+     */
+    public void checkCanceled() {
+        if (cancellationRequested) {
+            throw new CancellationException(String.format("Transformation to %s has been canceled", targetPlatform.getName()));
+        }
+    }
+
+    public void addListener(@NonNull TransformationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TransformationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void firePhaseStarted(String phase) {
+        fire(listener -> listener.phaseStarted(this, phase));
+    }
+
+    public void firePhaseFinished(String phase, LifecyclePhase.State phaseState) {
+        fire(listener -> listener.phaseFinished(this, phase, phaseState));
+    }
+
+    public void fireFileWritten(String relativePath) {
+        fire(listener -> listener.fileWritten(this, relativePath));
+    }
+
+    public void fireProgress(int percent) {
+        fire(listener -> listener.progress(this, percent));
+    }
+
+    private void fireStateChanged(State previous, State current) {
+        fire(listener -> listener.stateChanged(this, previous, current));
+    }
+
+    private void fire(Consumer<TransformationListener> event) {
+        for (TransformationListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                logger.warn("Transformation listener failed", e);
+            }
+        }
+    }
+
     public enum State {
         READY,
         TRANSFORMING,
         DONE,
-        ERROR
+        ERROR,
+        CANCELED;
+
+        private static final Set<State> FINAL = EnumSet.of(DONE, ERROR, CANCELED);
+
+        public boolean isFinal() {
+            return FINAL.contains(this);
+        }
+
+        boolean canTransitionTo(State next) {
+            switch (this) {
+                case READY:
+                    return next == TRANSFORMING || next == ERROR || next == CANCELED;
+                case TRANSFORMING:
+                    return next.isFinal();
+                default:
+                    return false;
+            }
+        }
     }
 }
@@ -2,7 +2,10 @@ package io.github.edmm.core.transformation;
 
 import java.io.File;
 
+import io.github.edmm.core.plugin.InMemoryFileAccess;
 import io.github.edmm.core.plugin.PluginFileAccess;
+import io.github.edmm.core.plugin.TopologyIndex;
+import io.github.edmm.core.transformation.metrics.Metrics;
 import io.github.edmm.model.DeploymentModel;
 import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.relation.RootRelation;
@@ -17,12 +20,28 @@ public final class TransformationContext {
 
     private final File sourceDirectory;
     private final File targetDirectory;
+    private final PluginFileAccess fileAccess;
 
     public TransformationContext(@NonNull Transformation transformation, @NonNull File sourceDirectory,
                                  @NonNull File targetDirectory) {
+        this(transformation, new PluginFileAccess(sourceDirectory, targetDirectory, PluginFileAccess.DEFAULT_MAX_OPEN_WRITERS,
+                transformation.getArtifactMode()));
+    }
+
+    /**
+     * Creates a context using the given file access, e.g., an {@link InMemoryFileAccess}.
+     */
+    public TransformationContext(@NonNull Transformation transformation, @NonNull PluginFileAccess fileAccess) {
         this.transformation = transformation;
-        this.sourceDirectory = sourceDirectory;
-        this.targetDirectory = targetDirectory;
+        this.sourceDirectory = fileAccess.getSourceDirectory();
+        this.targetDirectory = fileAccess.getTargetDirectory();
+        this.fileAccess = fileAccess;
+        this.fileAccess.setMetrics(transformation.getMetrics());
+        this.fileAccess.setWriteListener(transformation::fireFileWritten);
+    }
+
+    public Metrics getMetrics() {
+        return transformation.getMetrics();
     }
 
     public DeploymentModel getModel() {
@@ -33,7 +52,7 @@ public final class TransformationContext {
         return getModel().getTopology();
     }
 
-    public PluginFileAccess getFileAccess() {
-        return new PluginFileAccess(sourceDirectory, targetDirectory);
+    public TopologyIndex<RootComponent, RootRelation> getTopologyIndex() {
+        return getModel().getTopologyIndex();
     }
 }
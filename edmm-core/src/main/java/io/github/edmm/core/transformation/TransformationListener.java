@@ -0,0 +1,31 @@
+package io.github.edmm.core.transformation;
+
+import io.github.edmm.core.plugin.LifecyclePhase;
+
+/**
+ * Receives progress events of a {@link Transformation}. Events are delivered synchronously by the thread causing
+ * them, which may be any thread executing a lifecycle phase. Implementations must be thread-safe and fast.
+ */
+public interface TransformationListener {
+
+    default void stateChanged(Transformation transformation, Transformation.State previous, Transformation.State current) {
+    }
+
+    default void phaseStarted(Transformation transformation, String phase) {
+    }
+
+    default void phaseFinished(Transformation transformation, String phase, LifecyclePhase.State state) {
+    }
+
+    /**
+     * Invoked whenever data has been appended to or copied into a file of the target directory.
+     */
+    default void fileWritten(Transformation transformation, String relativePath) {
+    }
+
+    /**
+     * @param percent The share of finished or skipped lifecycle phases
+     */
+    default void progress(Transformation transformation, int percent) {
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.edmm.core.transformation.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DefaultMetrics implements Metrics {
+
+    private final Map<String, Map<String, Statistic>> measurements = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Measurement start(String category, String name) {
+        Statistic statistic = measurements.computeIfAbsent(category, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, k -> new Statistic());
+        return new Measurement(statistic);
+    }
+
+    @Override
+    public void increment(String counter, long delta) {
+        counters.computeIfAbsent(counter, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((name, value) -> result.put(name, value.get()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public Map<String, Map<String, Statistic>> getMeasurements() {
+        Map<String, Map<String, Statistic>> result = new TreeMap<>();
+        measurements.forEach((category, statistics) -> {
+            Map<String, Statistic> snapshot = new TreeMap<>();
+            statistics.forEach((name, statistic) -> snapshot.put(name, statistic.copy()));
+            result.put(category, Collections.unmodifiableMap(snapshot));
+        });
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.edmm.core.transformation.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A running measurement, recorded on {@link #close()}. Must be closed by the thread which started it.
+ */
+public final class Measurement implements AutoCloseable {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Measures nothing, returned if metrics are disabled.
+     */
+    static final Measurement NONE = new Measurement();
+
+    private final Statistic statistic;
+    private final long wallStart;
+    private final long cpuStart;
+    private final long allocatedStart;
+
+    private long bytes;
+    private boolean closed;
+
+    Measurement(Statistic statistic) {
+        this.statistic = statistic;
+        this.cpuStart = cpuTime();
+        this.allocatedStart = allocatedBytes();
+        this.wallStart = System.nanoTime();
+    }
+
+    private Measurement() {
+        this.statistic = null;
+        this.cpuStart = 0;
+        this.allocatedStart = 0;
+        this.wallStart = 0;
+        this.closed = true;
+    }
+
+    /**
+     * Adds the given number of bytes processed during this measurement, e.g., the bytes written to a file.
+     */
+    public void addBytes(long bytes) {
+        if (closed) {
+            return;
+        }
+        this.bytes += bytes;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long wall = System.nanoTime() - wallStart;
+        statistic.add(wall, cpuTime() - cpuStart, allocatedBytes() - allocatedStart, bytes);
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.edmm.core.transformation.metrics;
+
+import java.util.Map;
+
+/**
+ * Performance metrics of a single transformation.
+ * <p>
+ * Measurements are grouped by category (e.g., {@link #PHASE}) and name (e.g., the name of the phase). Repeated
+ * measurements of the same name are aggregated. Implementations must be thread-safe.
+ */
+public interface Metrics {
+
+    /**
+     * Discards all metrics, used unless a report of the transformation has been requested.
+     */
+    Metrics NONE = new NoopMetrics();
+
+    String TRANSFORMATION = "transformation";
+    String PHASE = "phase";
+    String VISITOR = "visitor";
+    String FILE = "file";
+
+    String COMPONENTS = "components";
+    String RELATIONS = "relations";
+    String ARTIFACTS_COPIED = "artifacts.copied";
+    String BYTES_WRITTEN = "bytes.written";
+    String FILES_UNCHANGED = "files.unchanged";
+    String OUTPUTS_SKIPPED = "outputs.skipped";
+
+    /**
+     * Starts a measurement of wall-clock time, CPU time and allocated bytes of the current thread, which is
+     * recorded once the returned measurement is closed.
+     */
+    Measurement start(String category, String name);
+
+    void increment(String counter, long delta);
+
+    default void increment(String counter) {
+        increment(counter, 1);
+    }
+
+    /**
+     * @return snapshot of all counters
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return snapshot of all measurements, grouped by category and name
+     */
+    Map<String, Map<String, Statistic>> getMeasurements();
+}
@@ -0,0 +1,36 @@
+package io.github.edmm.core.transformation.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import io.github.edmm.core.plugin.JsonHelper;
+import io.github.edmm.core.transformation.Transformation;
+import lombok.Getter;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Machine-readable summary of the metrics of a transformation. Times are given in nanoseconds.
+ */
+@Getter
+public final class MetricsReport {
+
+    private final String model;
+    private final String platform;
+    private final String state;
+    private final Map<String, Long> counters;
+    private final Map<String, Map<String, Statistic>> measurements;
+
+    public MetricsReport(Transformation transformation) {
+        this.model = transformation.getModel().getName();
+        this.platform = transformation.getTargetPlatform().getId();
+        this.state = transformation.getState().name();
+        this.counters = transformation.getMetrics().getCounters();
+        this.measurements = transformation.getMetrics().getMeasurements();
+    }
+
+    public void write(File file) throws IOException {
+        FileUtils.writeStringToFile(file, JsonHelper.toJson(this), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.edmm.core.transformation.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+final class NoopMetrics implements Metrics {
+
+    @Override
+    public Measurement start(String category, String name) {
+        return Measurement.NONE;
+    }
+
+    @Override
+    public void increment(String counter, long delta) {
+        // NOOP
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, Map<String, Statistic>> getMeasurements() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.edmm.core.transformation.metrics;
+
+import lombok.Getter;
+
+/**
+ * Aggregated measurements of a single category and name.
+ */
+@Getter
+public final class Statistic {
+
+    private long count;
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long bytes;
+
+    synchronized void add(long wallNanos, long cpuNanos, long allocatedBytes, long bytes) {
+        this.count++;
+        this.wallNanos += wallNanos;
+        this.cpuNanos += cpuNanos;
+        this.allocatedBytes += allocatedBytes;
+        this.bytes += bytes;
+    }
+
+    synchronized Statistic copy() {
+        Statistic copy = new Statistic();
+        copy.count = count;
+        copy.wallNanos = wallNanos;
+        copy.cpuNanos = cpuNanos;
+        copy.allocatedBytes = allocatedBytes;
+        copy.bytes = bytes;
+        return copy;
+    }
+}
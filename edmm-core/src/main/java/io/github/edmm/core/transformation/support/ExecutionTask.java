@@ -3,7 +3,10 @@ package io.github.edmm.core.transformation.support;
 import java.io.File;
 import java.util.concurrent.Callable;
 
+import io.github.edmm.core.plugin.InMemoryFileAccess;
+import io.github.edmm.core.plugin.OutputIndex;
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.transformation.OutputMode;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.Transformation;
 import io.github.edmm.core.transformation.TransformationContext;
@@ -19,42 +22,106 @@ public final class ExecutionTask implements Callable<Void> {
     private final Transformation transformation;
     private final File sourceDirectory;
     private final File targetDirectory;
+    private final OutputMode outputMode;
 
-    private boolean failed = false;
+    private Thread runner;
 
     public ExecutionTask(@NonNull Plugin plugin, @NonNull Transformation transformation,
                          @NonNull File sourceDirectory, @NonNull File targetDirectory) {
+        this(plugin, transformation, sourceDirectory, targetDirectory, OutputMode.DIRECT);
+    }
+
+    public ExecutionTask(@NonNull Plugin plugin, @NonNull Transformation transformation,
+                         @NonNull File sourceDirectory, @NonNull File targetDirectory, @NonNull OutputMode outputMode) {
         this.plugin = plugin;
         this.transformation = transformation;
         this.sourceDirectory = sourceDirectory;
         this.targetDirectory = targetDirectory;
+        this.outputMode = outputMode;
     }
 
     @Override
     public Void call() {
         String templateName = transformation.getModel().getName();
         Platform platform = plugin.getPlatform();
-        logger.info("Starting transformation for {}", platform.getName());
-        transformation.setState(Transformation.State.TRANSFORMING);
-        if (!targetDirectory.exists() && !targetDirectory.mkdirs()) {
-            logger.error("Could not create directory at '{}'", targetDirectory.getAbsolutePath());
-            transformation.setState(Transformation.State.ERROR);
-            return null;
-        }
-        if (!targetDirectory.isDirectory() || !targetDirectory.canWrite()) {
-            logger.error("Given value is not a directory or not writable: {}", targetDirectory.getAbsolutePath());
-            transformation.setState(Transformation.State.ERROR);
+        if (!transformation.transition(Transformation.State.READY, Transformation.State.TRANSFORMING)) {
+            logger.info("Skipping transformation for {}, state is {}", platform.getName(), transformation.getState());
             return null;
         }
+        logger.info("Starting transformation for {}", platform.getName());
+        setRunner(Thread.currentThread());
         try {
-            plugin.transform(new TransformationContext(transformation, sourceDirectory, targetDirectory));
+            // The atomic output replaces the target directory, hence only its parent has to exist
+            File directory = outputMode == OutputMode.ATOMIC ? targetDirectory.getAbsoluteFile().getParentFile() : targetDirectory;
+            if (!directory.exists() && !directory.mkdirs()) {
+                logger.error("Could not create directory at '{}'", directory.getAbsolutePath());
+                transformation.setState(Transformation.State.ERROR);
+                return null;
+            }
+            if (!directory.isDirectory() || !directory.canWrite()) {
+                logger.error("Given value is not a directory or not writable: {}", directory.getAbsolutePath());
+                transformation.setState(Transformation.State.ERROR);
+                return null;
+            }
+            plugin.transform(createContext());
             transformation.setState(Transformation.State.DONE);
         } catch (Exception e) {
-            logger.info("Transformation to {} failed", platform.getName());
-            logger.error("Something went wrong while transforming", e);
-            failed = true;
+            if (transformation.isCancellationRequested()) {
+                logger.info("Transformation to {} canceled", platform.getName());
+                transformation.setState(Transformation.State.CANCELED);
+            } else {
+                logger.info("Transformation to {} failed", platform.getName());
+                logger.error("Something went wrong while transforming", e);
+                transformation.setState(Transformation.State.ERROR);
+            }
+        } finally {
+            setRunner(null);
+            // Do not leak a pending interrupt into the next task of a pooled thread
+            Thread.interrupted();
         }
-        transformation.setState(failed ? Transformation.State.ERROR : Transformation.State.DONE);
         return null;
     }
+
+    /**
+     * Requests the cancellation of the transformation and interrupts the thread executing it, so that blocking
+     * operations and visitors stop early.
+     */
+    public synchronized void cancel() {
+        transformation.cancel();
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    public Transformation getTransformation() {
+        return transformation;
+    }
+
+    private synchronized void setRunner(Thread runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Outputs of an incremental transformation are only reused if they have been generated by the same plugin version.
+     */
+    private String getOutputVersion() {
+        Package pkg = plugin.getClass().getPackage();
+        String version = pkg != null ? pkg.getImplementationVersion() : null;
+        return plugin.getPlatform().getId() + ":" + (version != null ? version : "dev");
+    }
+
+    private TransformationContext createContext() {
+        switch (outputMode) {
+            case ATOMIC:
+                return new TransformationContext(transformation,
+                        new InMemoryFileAccess(sourceDirectory, targetDirectory, InMemoryFileAccess.Commit.ATOMIC));
+            case INCREMENTAL:
+                InMemoryFileAccess fileAccess = new InMemoryFileAccess(sourceDirectory, targetDirectory,
+                        InMemoryFileAccess.Commit.INCREMENTAL, transformation.getArtifactMode());
+                fileAccess.setOutputIndex(OutputIndex.load(targetDirectory.getAbsoluteFile().toPath(), getOutputVersion()));
+                return new TransformationContext(transformation, fileAccess);
+            default:
+                return new TransformationContext(transformation, sourceDirectory, targetDirectory);
+        }
+    }
 }
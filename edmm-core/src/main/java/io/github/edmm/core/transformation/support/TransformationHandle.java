@@ -0,0 +1,87 @@
+package io.github.edmm.core.transformation.support;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.github.edmm.core.transformation.Transformation;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handle of a submitted {@link ExecutionTask}, which can be used by any thread to observe, await or cancel the
+ * transformation.
+ */
+public final class TransformationHandle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformationHandle.class);
+
+    private final ExecutionTask task;
+    private final Future<?> future;
+
+    public TransformationHandle(@NonNull ExecutionTask task, @NonNull Future<?> future) {
+        this.task = task;
+        this.future = future;
+    }
+
+    public Transformation getTransformation() {
+        return task.getTransformation();
+    }
+
+    public Transformation.State getState() {
+        return task.getTransformation().getState();
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Cancels the transformation. A running transformation stops at the next cancellation check.
+     */
+    public void cancel() {
+        task.cancel();
+        future.cancel(false);
+    }
+
+    /**
+     * Waits until the transformation has finished.
+     *
+     * @return the final state
+     */
+    public Transformation.State await() throws InterruptedException {
+        try {
+            future.get();
+        } catch (CancellationException e) {
+            // Canceled before it was started, the state of the transformation reflects it
+        } catch (ExecutionException e) {
+            logger.error("Error executing transformation task", e);
+        }
+        return getState();
+    }
+
+    /**
+     * Waits until the transformation has finished, but at most for the given time. If the time elapses, the
+     * transformation is canceled.
+     *
+     * @return the state at the time of return, which is not final if the transformation has not yet reacted to the
+     * cancellation
+     */
+    public Transformation.State await(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            logger.warn("Transformation to {} timed out after {} {}", getTransformation().getTargetPlatform().getName(),
+                    timeout, unit.name().toLowerCase());
+            cancel();
+        } catch (CancellationException e) {
+            // Canceled before it was started, the state of the transformation reflects it
+        } catch (ExecutionException e) {
+            logger.error("Error executing transformation task", e);
+        }
+        return getState();
+    }
+}
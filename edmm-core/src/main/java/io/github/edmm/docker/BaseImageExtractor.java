@@ -0,0 +1,106 @@
+package io.github.edmm.docker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.edmm.model.component.RootComponent;
+import lombok.NonNull;
+
+/**
+ * Extracts the leading components shared by several containers into base images, so that the layers of these
+ * components are built and stored only once.
+ * <p>
+ * Containers share a base image if they start from the same image and their stacks start with the same components,
+ * e.g., several applications hosted on the same web server. Every container is assigned the longest shared prefix
+ * of components with at least one operation or artifact, which is actually assigned to at least one other container.
+ * Nested base images are not extracted.
+ * <p>
+ * Components are compared by identity, not by content: the generated Dockerfiles contain the names of their
+ * components, e.g., in the names of environment variables and scripts, hence equal components hosted on different
+ * compute nodes would not result in equal image layers anyway.
+ */
+public abstract class BaseImageExtractor {
+
+    /**
+     * Assigns a shared base image to every container having one, see {@link Container#getSharedBase()}.
+     *
+     * @return The shared base images in the order of the containers using them first
+     */
+    public static List<Container> extract(@NonNull List<Container> containers) {
+        Map<List<Object>, Integer> counts = new HashMap<>();
+        for (Container container : containers) {
+            for (int length = 1; length < container.getComponents().size(); length++) {
+                counts.merge(key(container, length), 1, Integer::sum);
+            }
+        }
+        // A prefix shared by several containers might be used by a single one only, since the others share longer
+        // prefixes. Such prefixes are rejected and the assignment is repeated, until every prefix is used twice.
+        Set<List<Object>> rejected = new HashSet<>();
+        Map<Container, List<Object>> assignments;
+        boolean changed;
+        do {
+            assignments = assign(containers, counts, rejected);
+            Map<List<Object>, Integer> usages = new HashMap<>();
+            assignments.values().forEach(key -> usages.merge(key, 1, Integer::sum));
+            changed = false;
+            for (Map.Entry<List<Object>, Integer> usage : usages.entrySet()) {
+                if (usage.getValue() < 2) {
+                    rejected.add(usage.getKey());
+                    changed = true;
+                }
+            }
+        } while (changed);
+        Map<List<Object>, Container> baseImages = new LinkedHashMap<>();
+        assignments.forEach((container, key) -> {
+            Container baseImage = baseImages.computeIfAbsent(key, k -> createBaseImage(container, k.size() - 1));
+            container.setSharedBase(baseImage);
+        });
+        return new ArrayList<>(baseImages.values());
+    }
+
+    /**
+     * @return The longest shared and not rejected prefix of every container having one, in the order of the
+     * containers
+     */
+    private static Map<Container, List<Object>> assign(List<Container> containers, Map<List<Object>, Integer> counts,
+                                                       Set<List<Object>> rejected) {
+        Map<Container, List<Object>> assignments = new LinkedHashMap<>();
+        for (Container container : containers) {
+            for (int length = container.getComponents().size() - 1; length > 0; length--) {
+                List<Object> key = key(container, length);
+                if (counts.get(key) > 1 && !rejected.contains(key)
+                        && hasContent(container.getComponents().subList(0, length))) {
+                    assignments.put(container, key);
+                    break;
+                }
+            }
+        }
+        return assignments;
+    }
+
+    private static List<Object> key(Container container, int length) {
+        List<Object> key = new ArrayList<>();
+        key.add(container.getBaseImage());
+        key.addAll(container.getComponents().subList(0, length));
+        return key;
+    }
+
+    private static boolean hasContent(List<RootComponent> components) {
+        return components.stream().anyMatch(component -> !component.getArtifacts().isEmpty()
+                || component.getStandardLifecycle().getCreate().isPresent()
+                || component.getStandardLifecycle().getConfigure().isPresent());
+    }
+
+    private static Container createBaseImage(Container container, int length) {
+        Container baseImage = new Container();
+        baseImage.setComponents(new ArrayList<>(container.getComponents().subList(0, length)));
+        baseImage.setBaseImage(container.getBaseImage());
+        baseImage.setShared(true);
+        return baseImage;
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.edmm.docker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a build context into a tar archive (POSIX ustar format, optionally gzip-compressed), which can be used as
+ * {@code docker build - < <archive>}. Files are read once and written directly into the archive.
+ * <p>
+ * Entries are written with a fixed owner and modification time, so that the same content always results in the same
+ * archive. Names longer than supported by the ustar header are stored in a PAX extended header. Closing the archive
+ * writes the end-of-archive marker, but does not close the underlying stream.
+ */
+public class BuildContextArchive implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final int PREFIX_LENGTH = 155;
+    private static final long MAX_SIZE = 077777777777L;
+    private static final int FILE_MODE = 0644;
+    private static final int EXECUTABLE_MODE = 0755;
+
+    private final OutputStream out;
+    private final GZIPOutputStream gzip;
+
+    /**
+     * @param out      The stream to write to, is not closed by the archive
+     * @param compress Whether to compress the archive using gzip
+     */
+    public BuildContextArchive(OutputStream out, boolean compress) throws IOException {
+        this.gzip = compress ? new GZIPOutputStream(out, 8192) : null;
+        this.out = compress ? gzip : out;
+    }
+
+    /**
+     * Adds a file or all files contained in a directory, keeping the executable flag of every file.
+     *
+     * @param name The path inside the archive
+     */
+    public void add(String name, Path source) throws IOException {
+        if (Files.isDirectory(source)) {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(source)) {
+                files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String relativePath = source.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                addFile(name + "/" + relativePath, file);
+            }
+        } else {
+            addFile(name, source);
+        }
+    }
+
+    public void add(String name, byte[] content) throws IOException {
+        writeHeader(name, content.length, FILE_MODE);
+        out.write(content);
+        pad(content.length);
+    }
+
+    /**
+     * Writes the end-of-archive marker.
+     */
+    @Override
+    public void close() throws IOException {
+        out.write(new byte[2 * BLOCK_SIZE]);
+        if (gzip != null) {
+            gzip.finish();
+        }
+        out.flush();
+    }
+
+    private void addFile(String name, Path file) throws IOException {
+        long size = Files.size(file);
+        writeHeader(name, size, Files.isExecutable(file) ? EXECUTABLE_MODE : FILE_MODE);
+        long copied = Files.copy(file, out);
+        if (copied != size) {
+            throw new IOException("File '" + file + "' has been modified while archiving it");
+        }
+        pad(size);
+    }
+
+    private void writeHeader(String name, long size, int mode) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int split = findPrefixSplit(nameBytes);
+        if (split < 0 || size > MAX_SIZE) {
+            writePaxHeader(name, size);
+        }
+        byte[] header = new byte[BLOCK_SIZE];
+        if (split == 0) {
+            System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        } else if (split > 0) {
+            System.arraycopy(nameBytes, split + 1, header, 0, nameBytes.length - split - 1);
+            System.arraycopy(nameBytes, 0, header, 345, split);
+        } else {
+            // Only read by tools not supporting PAX headers
+            System.arraycopy(nameBytes, 0, header, 0, NAME_LENGTH);
+        }
+        writeOctal(header, 100, 8, mode);
+        writeOctal(header, 108, 8, 0);
+        writeOctal(header, 116, 8, 0);
+        writeOctal(header, 124, 12, Math.min(size, MAX_SIZE));
+        writeOctal(header, 136, 12, 0);
+        header[156] = '0';
+        writeHeaderBlock(header);
+    }
+
+    /**
+     * Writes a PAX extended header containing the full name and size of the following entry.
+     */
+    private void writePaxHeader(String name, long size) throws IOException {
+        byte[] records = (record("path", name) + record("size", String.valueOf(size))).getBytes(StandardCharsets.UTF_8);
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] paxName = "././@PaxHeader".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(paxName, 0, header, 0, paxName.length);
+        writeOctal(header, 100, 8, FILE_MODE);
+        writeOctal(header, 108, 8, 0);
+        writeOctal(header, 116, 8, 0);
+        writeOctal(header, 124, 12, records.length);
+        writeOctal(header, 136, 12, 0);
+        header[156] = 'x';
+        writeHeaderBlock(header);
+        out.write(records);
+        pad(records.length);
+    }
+
+    private void writeHeaderBlock(byte[] header) throws IOException {
+        byte[] magic = "ustar\u000000".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(magic, 0, header, 257, magic.length);
+        // The checksum is computed with the checksum field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        writeOctal(header, 148, 7, checksum);
+        out.write(header);
+    }
+
+    /**
+     * @return {@code 0} if the name fits into the name field, the position of the slash separating the prefix from
+     * the name if the name has to be split, or {@code -1} if it cannot be stored in a ustar header
+     */
+    private static int findPrefixSplit(byte[] name) {
+        if (name.length <= NAME_LENGTH) {
+            return 0;
+        }
+        for (int i = Math.min(name.length - 1, PREFIX_LENGTH); i > 0; i--) {
+            if (name[i] == '/' && name.length - i - 1 <= NAME_LENGTH) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Formats a PAX record, whose length prefix includes the length of the record itself.
+     */
+    private static String record(String key, String value) {
+        String content = " " + key + "=" + value + "\n";
+        int length = content.getBytes(StandardCharsets.UTF_8).length;
+        int total = length + String.valueOf(length).length();
+        if (String.valueOf(total).length() != String.valueOf(length).length()) {
+            total++;
+        }
+        return total + content;
+    }
+
+    /**
+     * Writes the given value as zero-padded octal number terminated by a NUL byte.
+     */
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        int digits = length - 1;
+        for (int i = 0; i < digits; i++) {
+            int index = octal.length() - digits + i;
+            header[offset + i] = (byte) (index < 0 ? '0' : octal.charAt(index));
+        }
+        header[offset + digits] = 0;
+    }
+
+    private void pad(long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder > 0) {
+            out.write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+}
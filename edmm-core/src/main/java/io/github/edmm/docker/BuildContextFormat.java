@@ -0,0 +1,32 @@
+package io.github.edmm.docker;
+
+/**
+ * The way the build context of an image (its Dockerfile and the files added by it) is written.
+ */
+public enum BuildContextFormat {
+
+    /**
+     * A directory containing the Dockerfile and copies of all files, e.g., for {@code docker build <directory>}.
+     */
+    DIRECTORY(""),
+
+    /**
+     * A tar archive, e.g., for {@code docker build - < <archive>}.
+     */
+    TAR(".tar"),
+
+    /**
+     * A gzip-compressed tar archive, e.g., for {@code docker build - < <archive>}.
+     */
+    TAR_GZ(".tar.gz");
+
+    private final String extension;
+
+    BuildContextFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -25,6 +25,15 @@ public final class Container {
     private List<FileMapping> operations = new ArrayList<>();
     private List<FileMapping> startOperations = new ArrayList<>();
 
+    /**
+     * The shared base image this container is built from, {@code null} if it is built from the base image directly.
+     */
+    private Container sharedBase;
+    /**
+     * Whether this container is a shared base image of other containers, see {@link BaseImageExtractor}.
+     */
+    private boolean shared;
+
     public Container(@NonNull Container stack) {
         this.components = new ArrayList<>(stack.components);
         this.baseImage = stack.baseImage;
@@ -33,10 +42,13 @@ public final class Container {
         this.ports = new ArrayList<>(stack.ports);
         this.operations = new ArrayList<>(stack.operations);
         this.startOperations = new ArrayList<>(stack.startOperations);
+        this.sharedBase = stack.sharedBase;
+        this.shared = stack.shared;
     }
 
     public String getName() {
-        return components.get(components.size() - 1).getName();
+        String name = components.get(components.size() - 1).getName();
+        return shared ? name + "_base" : name;
     }
 
     public String getLabel() {
@@ -51,6 +63,14 @@ public final class Container {
         return getLabel() + "-deployment";
     }
 
+    public String getAutoscalerName() {
+        return getLabel() + "-autoscaler";
+    }
+
+    public String getDisruptionBudgetName() {
+        return getLabel() + "-disruption-budget";
+    }
+
     public void addComponent(RootComponent component) {
         components.add(component);
     }
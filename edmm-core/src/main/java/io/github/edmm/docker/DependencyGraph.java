@@ -1,7 +1,13 @@
 package io.github.edmm.docker;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import io.github.edmm.core.plugin.TopologyIndex;
 import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.relation.ConnectsTo;
 import io.github.edmm.model.relation.RootRelation;
@@ -13,29 +19,60 @@ public final class DependencyGraph extends DirectedMultigraph<Container, Connect
 
     private final List<Container> stacks;
     private final Graph<RootComponent, RootRelation> graph;
+    private final TopologyIndex<RootComponent, RootRelation> topologyIndex;
+    private final Map<RootComponent, List<Container>> stacksByComponent = new HashMap<>();
 
-    public DependencyGraph(@NonNull List<Container> stacks, @NonNull Graph<RootComponent, @NonNull RootRelation> graph) {
+    private TopologyIndex<Container, ConnectsTo> index;
+
+    public DependencyGraph(@NonNull List<Container> stacks, @NonNull Graph<RootComponent, @NonNull RootRelation> graph,
+                           @NonNull TopologyIndex<RootComponent, RootRelation> topologyIndex) {
         super(ConnectsTo.class);
         this.stacks = stacks;
         this.graph = graph;
+        this.topologyIndex = topologyIndex;
         initGraph();
     }
 
+    /**
+     * Adds an edge for every connects-to relation between components of different stacks, in time linear in the
+     * number of components and relations. Since a relation can only be added once, a component contained in several
+     * stacks (e.g., a shared compute node) is represented by the first stack containing it.
+     */
     private void initGraph() {
-        stacks.forEach(this::addVertex);
+        for (Container stack : stacks) {
+            addVertex(stack);
+            for (RootComponent component : stack.getComponents()) {
+                stacksByComponent.computeIfAbsent(component, k -> new ArrayList<>()).add(stack);
+            }
+        }
         for (Container sourceStack : stacks) {
-            sourceStack.getComponents().forEach(source -> {
-                source.getRelations().stream()
-                        .filter(r -> r instanceof ConnectsTo)
-                        .forEach(r -> {
-                            RootComponent target = graph.getEdgeTarget(r);
-                            for (Container targetStack : stacks) {
-                                if (targetStack.hasComponent(target)) {
-                                    this.addEdge(sourceStack, targetStack, (ConnectsTo) r);
-                                }
-                            }
-                        });
-            });
+            for (RootComponent source : sourceStack.getComponents()) {
+                for (ConnectsTo r : topologyIndex.getOutgoingEdges(source, ConnectsTo.class)) {
+                    List<Container> targetStacks = stacksByComponent.get(graph.getEdgeTarget(r));
+                    if (targetStacks != null && !containsEdge(r)) {
+                        addEdge(sourceStack, targetStacks.get(0), r);
+                    }
+                }
+            }
         }
+        index = new TopologyIndex<>(this);
+    }
+
+    /**
+     * Fetch all stacks containing the given component.
+     *
+     * @return unmodifiable list of stacks, in the order of the stacks of this graph
+     */
+    public List<Container> getStacks(RootComponent component) {
+        return Collections.unmodifiableList(stacksByComponent.getOrDefault(component, Collections.emptyList()));
+    }
+
+    /**
+     * Fetch all stacks the given stack connects to.
+     *
+     * @return unmodifiable view of the target stacks
+     */
+    public Set<Container> getTargetStacks(Container stack) {
+        return index.getTargets(stack, ConnectsTo.class);
     }
 }
@@ -3,9 +3,15 @@ package io.github.edmm.docker;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.github.edmm.docker.support.AddEntry;
+import io.github.edmm.docker.support.CacheMount;
 import io.github.edmm.docker.support.CmdEntry;
 import io.github.edmm.docker.support.CopyEntry;
 import io.github.edmm.docker.support.DockerfileEntry;
@@ -16,59 +22,104 @@ import io.github.edmm.docker.support.FromEntry;
 import io.github.edmm.docker.support.RunEntry;
 import io.github.edmm.docker.support.VolumeEntry;
 import io.github.edmm.docker.support.WorkdirEntry;
+import lombok.NonNull;
+import lombok.Value;
 
 public final class DockerfileBuilder {
 
+    /**
+     * Dockerfile frontend supporting BuildKit features like cache mounts.
+     */
+    public static final String DEFAULT_SYNTAX = "docker/dockerfile:1";
+
+    private String syntax;
     private boolean compress = false;
+    private LayerOrdering layerOrdering = LayerOrdering.DECLARATION;
+    private Layer layer = Layer.OPERATION;
     private List<AddEntry> addEntries = new ArrayList<>();
     private List<EnvEntry> envEntries = new ArrayList<>();
     private int workdirIndex = -1;
 
     private final List<DockerfileEntry> entries = new ArrayList<>();
+    private final List<Step> steps = new ArrayList<>();
+    private final List<DockerfileEntry> trailer = new ArrayList<>();
+    private final List<DockerfileBuilder> stages = new ArrayList<>();
+
+    /**
+     * Adds a {@code # syntax} header selecting the Dockerfile frontend, e.g., {@link #DEFAULT_SYNTAX}.
+     */
+    public DockerfileBuilder syntax(String syntax) {
+        this.syntax = syntax;
+        return this;
+    }
+
+    /**
+     * Adds a build stage preceding the stage of this builder. Files can be copied from it using {@link
+     * #copyFrom(String, String, String)} if it has been named by {@link #from(String, String)}.
+     */
+    public DockerfileBuilder stage(@NonNull DockerfileBuilder stage) {
+        stages.add(stage);
+        return this;
+    }
 
     public DockerfileBuilder from(String baseImage) {
         entries.add(new FromEntry(baseImage));
         return this;
     }
 
+    public DockerfileBuilder from(String baseImage, String stageName) {
+        entries.add(new FromEntry(baseImage, stageName));
+        return this;
+    }
+
     public DockerfileBuilder env(String name, String value) {
         envEntries.add(new EnvEntry(name, value));
         return this;
     }
 
     public DockerfileBuilder copy(String src, String dest) {
-        CopyEntry entry = new CopyEntry(src, dest);
-        if (workdirIndex < 0) {
-            entries.add(entry);
-        } else {
-            addEntries.add(entry);
-        }
-        return this;
+        return addFile(new CopyEntry(src, dest));
+    }
+
+    /**
+     * Copies files from a previous build stage.
+     */
+    public DockerfileBuilder copyFrom(String stage, String src, String dest) {
+        return addFile(new CopyEntry(stage, src, dest));
     }
 
     public DockerfileBuilder add(String src, String dest) {
-        AddEntry entry = new AddEntry(src, dest);
-        if (workdirIndex < 0) {
-            entries.add(entry);
-        } else {
-            addEntries.add(entry);
-        }
-        return this;
+        return addFile(new AddEntry(src, dest));
+    }
+
+    public DockerfileBuilder run(String command, CacheMount... mounts) {
+        return run(command, null, mounts);
     }
 
-    public DockerfileBuilder run(String command) {
-        entries.add(new RunEntry(command));
+    /**
+     * Adds a RUN instruction which only depends on the given environment variables. Using {@link
+     * LayerOrdering#CACHE}, the ENV instructions of these variables are placed right before the RUN instruction
+     * unless they are required earlier.
+     *
+     * @param env    The names of the required environment variables, {@code null} if all variables are required
+     * @param mounts Cache mounts used by the command, requires BuildKit
+     */
+    public DockerfileBuilder run(String command, Collection<String> env, CacheMount... mounts) {
+        RunEntry entry = new RunEntry(command, mounts);
+        if (layerOrdering == LayerOrdering.CACHE) {
+            steps.add(new Step(layer, entry, env));
+        } else {
+            entries.add(entry);
+        }
         return this;
     }
 
     public DockerfileBuilder volume(String path) {
-        entries.add(new VolumeEntry(path));
-        return this;
+        return addMetadata(new VolumeEntry(path));
     }
 
     public DockerfileBuilder expose(Integer port) {
-        entries.add(new ExposeEntry(port));
-        return this;
+        return addMetadata(new ExposeEntry(port));
     }
 
     public DockerfileBuilder workdir(String directory) {
@@ -79,13 +130,11 @@ public final class DockerfileBuilder {
     }
 
     public DockerfileBuilder entrypoint(String... args) {
-        entries.add(new EntrypointEntry(args));
-        return this;
+        return addMetadata(new EntrypointEntry(args));
     }
 
     public DockerfileBuilder cmd(String... args) {
-        entries.add(new CmdEntry(args));
-        return this;
+        return addMetadata(new CmdEntry(args));
     }
 
     public DockerfileBuilder compress() {
@@ -93,11 +142,40 @@ public final class DockerfileBuilder {
         return this;
     }
 
+    /**
+     * Sets the strategy used to order the instructions, must be set before adding any ADD, COPY or RUN
+     * instruction.
+     */
+    public DockerfileBuilder layerOrdering(@NonNull LayerOrdering layerOrdering) {
+        this.layerOrdering = layerOrdering;
+        return this;
+    }
+
+    /**
+     * Assigns the ADD, COPY and RUN instructions added from now on to the given layer, only used by {@link
+     * LayerOrdering#CACHE}.
+     */
+    public DockerfileBuilder layer(@NonNull Layer layer) {
+        this.layer = layer;
+        return this;
+    }
+
     public String build() {
-        populateAddEntries();
-        populateEnvEntries();
+        if (layerOrdering == LayerOrdering.CACHE) {
+            populateSteps();
+        } else {
+            populateAddEntries();
+            populateEnvEntries();
+        }
         StringWriter writer = new StringWriter();
         PrintWriter pw = new PrintWriter(writer);
+        if (syntax != null) {
+            pw.println("# syntax=" + syntax);
+        }
+        for (DockerfileBuilder stage : stages) {
+            pw.print(stage.build());
+            pw.println();
+        }
         for (int i = 0; i < entries.size(); i++) {
             DockerfileEntry prev = i > 0 ? entries.get(i - 1) : null;
             DockerfileEntry current = entries.get(i);
@@ -107,6 +185,26 @@ public final class DockerfileBuilder {
         return writer.toString();
     }
 
+    private DockerfileBuilder addFile(AddEntry entry) {
+        if (layerOrdering == LayerOrdering.CACHE) {
+            steps.add(new Step(layer, entry, null));
+        } else if (workdirIndex < 0) {
+            entries.add(entry);
+        } else {
+            addEntries.add(entry);
+        }
+        return this;
+    }
+
+    private DockerfileBuilder addMetadata(DockerfileEntry entry) {
+        if (layerOrdering == LayerOrdering.CACHE) {
+            trailer.add(entry);
+        } else {
+            entries.add(entry);
+        }
+        return this;
+    }
+
     private void populateEnvEntries() {
         entries.addAll(1, envEntries);
         envEntries.clear();
@@ -124,4 +222,75 @@ public final class DockerfileBuilder {
         }
         addEntries.clear();
     }
+
+    private void populateSteps() {
+        // Variables defined more than once keep their first position and their last value
+        Map<String, EnvEntry> pendingEnv = new LinkedHashMap<>();
+        envEntries.forEach(entry -> pendingEnv.put(entry.getName(), entry));
+        envEntries.clear();
+        steps.sort(Comparator.comparing(Step::getLayer));
+        for (Step step : steps) {
+            if (step.getEntry() instanceof RunEntry) {
+                Iterator<EnvEntry> iterator = pendingEnv.values().iterator();
+                while (iterator.hasNext()) {
+                    EnvEntry env = iterator.next();
+                    if (step.getEnv() == null || step.getEnv().contains(env.getName())) {
+                        entries.add(env);
+                        iterator.remove();
+                    }
+                }
+            }
+            entries.add(step.getEntry());
+        }
+        steps.clear();
+        entries.addAll(pendingEnv.values());
+        entries.addAll(trailer);
+        trailer.clear();
+    }
+
+    /**
+     * Strategy to order the instructions of a Dockerfile.
+     */
+    public enum LayerOrdering {
+        /**
+         * ENV instructions follow the FROM instruction, files added after a WORKDIR instruction are added right
+         * after it, all other instructions keep the order in which they have been added.
+         */
+        DECLARATION,
+        /**
+         * Orders the instructions so that a rebuild reuses as many cached image layers as possible: FROM and
+         * WORKDIR instructions come first, followed by the ADD, COPY and RUN instructions ordered by their {@link
+         * Layer} and otherwise in the order they have been added, i.e., operations are never reordered. Every ENV
+         * instruction is deferred to the first RUN instruction requiring it. EXPOSE, VOLUME, ENTRYPOINT and CMD
+         * instructions come last.
+         */
+        CACHE
+    }
+
+    /**
+     * Layers of an image, ordered from rarely to frequently changing content.
+     */
+    public enum Layer {
+        /**
+         * Operations installing and configuring the image, e.g., create and configure operations, together with the
+         * files they need. Since operations may depend on each other, they keep the order in which they have been
+         * added.
+         */
+        OPERATION,
+        /**
+         * Application artifacts.
+         */
+        ARTIFACT,
+        /**
+         * Scripts started by the container.
+         */
+        START
+    }
+
+    @Value
+    private static class Step {
+        private final Layer layer;
+        private final DockerfileEntry entry;
+        private final Collection<String> env;
+    }
 }
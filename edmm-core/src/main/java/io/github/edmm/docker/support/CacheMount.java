@@ -0,0 +1,29 @@
+package io.github.edmm.docker.support;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A BuildKit cache mount ({@code RUN --mount=type=cache}), which keeps the given directory across builds without
+ * adding it to the image.
+ */
+@Value
+public class CacheMount {
+
+    public static final CacheMount APT = new CacheMount("/var/cache/apt", true);
+    public static final CacheMount APT_LISTS = new CacheMount("/var/lib/apt/lists", true);
+    public static final CacheMount MAVEN = new CacheMount("/root/.m2", false);
+    public static final CacheMount NPM = new CacheMount("/root/.npm", false);
+
+    @NonNull
+    private final String target;
+    /**
+     * Whether concurrent builds have to wait for each other, required by tools locking the cache like apt.
+     */
+    private final boolean locked;
+
+    @Override
+    public String toString() {
+        return "--mount=type=cache,target=" + target + (locked ? ",sharing=locked" : "");
+    }
+}
@@ -6,4 +6,12 @@ public class CopyEntry extends AddEntry {
         super(src, dest);
         this.command = "COPY ";
     }
+
+    /**
+     * @param stage The name of the build stage (or an image) to copy from
+     */
+    public CopyEntry(String stage, String src, String dest) {
+        super(src, dest);
+        this.command = "COPY --from=" + stage + " ";
+    }
 }
@@ -12,6 +12,10 @@ public class EnvEntry extends DockerfileEntry {
         this.value = value;
     }
 
+    public String getName() {
+        return name;
+    }
+
     @Override
     public void append(PrintWriter pw, DockerfileEntry prev, DockerfileEntry next, boolean compress) {
         pw.println("ENV " + name + "=" + value);
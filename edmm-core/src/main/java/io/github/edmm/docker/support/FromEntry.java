@@ -5,13 +5,22 @@ import java.io.PrintWriter;
 public class FromEntry extends DockerfileEntry {
 
     private final String baseImage;
+    private final String stageName;
 
     public FromEntry(String baseImage) {
+        this(baseImage, null);
+    }
+
+    /**
+     * @param stageName The name of the build stage, used to copy files from it ({@code COPY --from})
+     */
+    public FromEntry(String baseImage, String stageName) {
         this.baseImage = baseImage;
+        this.stageName = stageName;
     }
 
     @Override
     public void append(PrintWriter pw, DockerfileEntry prev, DockerfileEntry next, boolean compress) {
-        pw.println("FROM " + baseImage);
+        pw.println("FROM " + baseImage + (stageName != null ? " AS " + stageName : ""));
     }
 }
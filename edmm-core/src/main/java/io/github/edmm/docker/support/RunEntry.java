@@ -1,30 +1,47 @@
 package io.github.edmm.docker.support;
 
 import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
 
 public class RunEntry extends DockerfileEntry {
 
     private final String command;
+    private final List<CacheMount> mounts;
 
-    public RunEntry(String command) {
+    public RunEntry(String command, CacheMount... mounts) {
         this.command = command;
+        this.mounts = Arrays.asList(mounts);
     }
 
     @Override
     public void append(PrintWriter pw, DockerfileEntry prev, DockerfileEntry next, boolean compress) {
         if (!compress) {
-            pw.println("RUN " + command);
+            pw.println("RUN " + getMountOptions() + command);
         } else {
-            if (!(prev instanceof RunEntry)) {
-                pw.print("RUN " + command);
+            if (!isChainedWith(prev)) {
+                pw.print("RUN " + getMountOptions() + command);
             } else {
                 pw.print("    " + command);
             }
-            if (next instanceof RunEntry) {
+            if (isChainedWith(next)) {
                 pw.println(" && \\");
             } else {
                 pw.println();
             }
         }
     }
+
+    /**
+     * Commands are only chained with adjacent commands using the same cache mounts.
+     */
+    private boolean isChainedWith(DockerfileEntry entry) {
+        return entry instanceof RunEntry && ((RunEntry) entry).mounts.equals(mounts);
+    }
+
+    private String getMountOptions() {
+        StringBuilder options = new StringBuilder();
+        mounts.forEach(mount -> options.append(mount).append(' '));
+        return options.toString();
+    }
 }
@@ -10,6 +10,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.github.edmm.core.parser.EntityGraph;
+import io.github.edmm.core.plugin.TopologicalOrder;
+import io.github.edmm.core.plugin.TopologyIndex;
 import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.relation.HostedOn;
 import io.github.edmm.model.relation.RootRelation;
@@ -34,6 +36,8 @@ public final class DeploymentModel {
 
     private final Map<String, RootComponent> componentMap;
     private final Graph<RootComponent, RootRelation> topology = new DirectedMultigraph<>(RootRelation.class);
+    private final TopologyIndex<RootComponent, RootRelation> topologyIndex;
+    private final TopologicalOrder topologicalOrder;
     private Set<Graph<RootComponent, RootRelation>> stacks = new HashSet<>();
 
     public DeploymentModel(String name, EntityGraph graph) {
@@ -42,6 +46,8 @@ public final class DeploymentModel {
         componentMap = TypeWrapper.wrapComponents(graph);
         initNodes();
         initEdges();
+        topologyIndex = new TopologyIndex<>(topology);
+        topologicalOrder = new TopologicalOrder(topology);
     }
 
     private void initNodes() {
@@ -73,6 +79,16 @@ public final class DeploymentModel {
         return new DeploymentModel(file.getName(), graph);
     }
 
+    /**
+     * Creates an independent instance of this model sharing no mutable state, e.g., the transformation state of
+     * components and relations, with the original. This is considerably cheaper than parsing the model again.
+     *
+     * @return the copied model
+     */
+    public DeploymentModel copy() {
+        return new DeploymentModel(name, graph.copy());
+    }
+
     public Set<RootComponent> getComponents() {
         return topology.vertexSet();
     }
@@ -42,7 +42,7 @@ public class RootComponent extends ModelEntity implements VisitableComponent {
         return get(TYPE);
     }
 
-    public List<RootRelation> getRelations() {
+    public synchronized List<RootRelation> getRelations() {
         if (relationCache.isEmpty()) {
             List<RootRelation> result = new ArrayList<>();
             Optional<Entity> artifactsEntity = getEntity().getChild(RELATIONS);
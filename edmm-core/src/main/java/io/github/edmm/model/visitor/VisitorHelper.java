@@ -1,6 +1,7 @@
 package io.github.edmm.model.visitor;
 
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.function.Predicate;
 
 import io.github.edmm.model.component.RootComponent;
@@ -21,6 +22,7 @@ public abstract class VisitorHelper {
         components.stream()
                 .filter(filter)
                 .forEach(component -> {
+                    checkInterrupted();
                     if (!component.isTransformed()) {
                         logger.debug("Visit '{}' object for '{}' component", component.getClass().getSimpleName(), component.getName());
                         component.accept(visitor);
@@ -36,10 +38,20 @@ public abstract class VisitorHelper {
         relations.stream()
                 .filter(filter)
                 .forEach(relation -> {
+                    checkInterrupted();
                     if (!relation.isTransformed()) {
                         logger.debug("Visit '{}' object for '{}' relation", relation.getClass().getSimpleName(), relation.getName());
                         relation.accept(visitor);
                     }
                 });
     }
+
+    /**
+     * Stops visiting once the transformation thread has been interrupted, i.e., the transformation was canceled.
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Transformation has been canceled");
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package io.github.edmm.plugins;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.PluginProvider;
+import io.github.edmm.core.transformation.Platform;
+import io.github.edmm.plugins.ansible.AnsiblePlugin;
+import io.github.edmm.plugins.azure.AzurePlugin;
+import io.github.edmm.plugins.cfn.CloudFormationPlugin;
+import io.github.edmm.plugins.chef.ChefPlugin;
+import io.github.edmm.plugins.cloudify.CloudifyPlugin;
+import io.github.edmm.plugins.compose.DockerComposePlugin;
+import io.github.edmm.plugins.heat.HeatPlugin;
+import io.github.edmm.plugins.kubernetes.KubernetesPlugin;
+import io.github.edmm.plugins.puppet.PuppetPlugin;
+import io.github.edmm.plugins.terraform.TerraformPlugin;
+
+/**
+ * Provides the plugins shipped with the framework.
+ */
+public class DefaultPluginProvider implements PluginProvider {
+
+    private static final Map<Platform, Supplier<Plugin>> PLUGINS = new LinkedHashMap<>();
+
+    static {
+        PLUGINS.put(AnsiblePlugin.ANSIBLE, AnsiblePlugin::new);
+        PLUGINS.put(AzurePlugin.AZURE, AzurePlugin::new);
+        PLUGINS.put(CloudFormationPlugin.CFN, CloudFormationPlugin::new);
+        PLUGINS.put(ChefPlugin.CHEF, ChefPlugin::new);
+        PLUGINS.put(CloudifyPlugin.CLOUDIFY, CloudifyPlugin::new);
+        PLUGINS.put(DockerComposePlugin.DOCKER_COMPOSE, DockerComposePlugin::new);
+        PLUGINS.put(HeatPlugin.HEAT, HeatPlugin::new);
+        PLUGINS.put(KubernetesPlugin.KUBERNETES, KubernetesPlugin::new);
+        PLUGINS.put(PuppetPlugin.PUPPET, PuppetPlugin::new);
+        PLUGINS.put(TerraformPlugin.TERRAFORM, TerraformPlugin::new);
+    }
+
+    @Override
+    public List<Platform> getPlatforms() {
+        return new ArrayList<>(PLUGINS.keySet());
+    }
+
+    @Override
+    public Plugin createPlugin(Platform platform) {
+        Supplier<Plugin> plugin = PLUGINS.get(platform);
+        if (plugin == null) {
+            throw new IllegalArgumentException(String.format("Platform '%s' is not supported", platform.getId()));
+        }
+        return plugin.get();
+    }
+}
@@ -21,7 +21,7 @@ public class AnsibleLifecycle extends AbstractLifecycle {
     public void transform() {
         LOGGER.info("Begin transformation to Ansible...");
         AnsibleVisitor visitor = new AnsibleVisitor(context);
-        VisitorHelper.visit(context.getModel().getComponents(), visitor);
+        visit(context, visitor, () -> VisitorHelper.visit(context.getModel().getComponents(), visitor));
         visitor.populateAnsibleFile();
         LOGGER.info("Transformation to Ansible successful");
     }
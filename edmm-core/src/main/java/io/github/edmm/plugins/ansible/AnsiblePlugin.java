@@ -1,6 +1,7 @@
 package io.github.edmm.plugins.ansible;
 
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.TemplateHelper;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.TransformationContext;
 
@@ -12,6 +13,11 @@ public class AnsiblePlugin extends Plugin<AnsibleLifecycle> {
         super(ANSIBLE);
     }
 
+    @Override
+    protected void init() {
+        TemplateHelper.preload(AnsiblePlugin.class, "/plugins/ansible", "playbook_base.yml");
+    }
+
     @Override
     public AnsibleLifecycle getLifecycle(TransformationContext context) {
         return new AnsibleLifecycle(context);
@@ -10,17 +10,14 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.plugin.TemplateHelper;
+import io.github.edmm.core.plugin.TopologicalOrder;
 import io.github.edmm.core.transformation.TransformationContext;
 import io.github.edmm.model.Operation;
 import io.github.edmm.model.Property;
 import io.github.edmm.model.component.RootComponent;
-import io.github.edmm.model.relation.RootRelation;
 import io.github.edmm.model.visitor.ComponentVisitor;
 import io.github.edmm.plugins.ansible.model.AnsiblePlay;
 import io.github.edmm.plugins.ansible.model.AnsibleTask;
-import org.jgrapht.alg.CycleDetector;
-import org.jgrapht.graph.EdgeReversedGraph;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ClassPathResource;
@@ -44,42 +41,32 @@ public class AnsibleVisitor implements ComponentVisitor {
         try {
             Template baseTemplate = cfg.getTemplate("playbook_base.yml");
 
-            CycleDetector<RootComponent, RootRelation> cycleDetector = new CycleDetector<>(context.getModel().getTopology());
-            if (cycleDetector.detectCycles()) {
-                // TODO handle cycle in the topology notification
-                throw new RuntimeException("The given topology is not acyclic");
-            } else {
-                // reverse the graph to find sources
-                EdgeReversedGraph<RootComponent, RootRelation> dependencyGraph = new EdgeReversedGraph<>(context.getModel().getTopology());
-                // apply the topological sort
-                TopologicalOrderIterator<RootComponent, RootRelation> iterator = new TopologicalOrderIterator<>(dependencyGraph);
-
-                LOGGER.info("topological order");
-                Map<String, Object> templateData = new HashMap<>();
-                List<AnsiblePlay> plays = new ArrayList<>();
-
-                while (iterator.hasNext()) {
-                    RootComponent component = iterator.next();
-                    LOGGER.info("Generate a play for component " + component.getName());
-                    Map<String, String> properties = new HashMap<>();
-                    List<AnsibleTask> tasks = new ArrayList<>();
-
-                    prepareProperties(properties, component.getProperties());
-                    prepareTasks(tasks, collectOperations(component));
-
-                    AnsiblePlay play = AnsiblePlay.builder()
-                            .name(component.getName())
-                            .hosts("")
-                            .vars(properties)
-                            .tasks(tasks)
-                            .build();
-
-                    plays.add(play);
-                }
-
-                templateData.put("plays", plays);
-                fileAccess.append(FILE_NAME, TemplateHelper.toString(baseTemplate, templateData));
+            TopologicalOrder order = context.getModel().getTopologicalOrder();
+            order.requireAcyclic();
+            LOGGER.info("topological order");
+            Map<String, Object> templateData = new HashMap<>();
+            List<AnsiblePlay> plays = new ArrayList<>();
+
+            for (RootComponent component : order.getOrder()) {
+                LOGGER.info("Generate a play for component " + component.getName());
+                Map<String, String> properties = new HashMap<>();
+                List<AnsibleTask> tasks = new ArrayList<>();
+
+                prepareProperties(properties, component.getProperties());
+                prepareTasks(tasks, collectOperations(component));
+
+                AnsiblePlay play = AnsiblePlay.builder()
+                        .name(component.getName())
+                        .hosts("")
+                        .vars(properties)
+                        .tasks(tasks)
+                        .build();
+
+                plays.add(play);
             }
+
+            templateData.put("plays", plays);
+            TemplateHelper.write(fileAccess, FILE_NAME, baseTemplate, templateData);
         } catch (IOException e) {
             LOGGER.error("Failed to write Ansible file: {}", e.getMessage(), e);
         }
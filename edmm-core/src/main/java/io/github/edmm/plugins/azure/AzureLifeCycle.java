@@ -5,8 +5,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import io.github.edmm.core.plugin.AbstractLifecycle;
-import io.github.edmm.core.plugin.JsonHelper;
 import io.github.edmm.core.plugin.PluginFileAccess;
+import io.github.edmm.core.plugin.Serializer;
 import io.github.edmm.core.transformation.TransformationContext;
 import io.github.edmm.model.component.Compute;
 import io.github.edmm.model.visitor.VisitorHelper;
@@ -30,9 +30,7 @@ public class AzureLifeCycle extends AbstractLifecycle {
     private void populateAzureTemplateFile(ResourceManagerTemplate resultTemplate) {
         PluginFileAccess fileAccess = context.getFileAccess();
         try {
-            final String templateString = JsonHelper.toJson(resultTemplate);
-            logger.debug(templateString);
-            fileAccess.append(FILE_NAME, templateString);
+            Serializer.JSON.write(fileAccess, FILE_NAME, resultTemplate);
         } catch (IOException e) {
             logger.error("Failed to write Azure Resource Manager file: {}", e.getMessage(), e);
         }
@@ -70,11 +68,13 @@ public class AzureLifeCycle extends AbstractLifecycle {
     public void transform() {
         logger.info("Begin transformation to Azure Resource Manager...");
         AzureVisitor visitor = new AzureVisitor(context.getTopologyGraph());
-        // Visit compute components first
-        VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
-        // ... then all others
-        VisitorHelper.visit(context.getModel().getComponents(), visitor);
-        VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        visit(context, visitor, () -> {
+            // Visit compute components first
+            VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
+            // ... then all others
+            VisitorHelper.visit(context.getModel().getComponents(), visitor);
+            VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        });
         // ... then populate variables and parameters required by the added azure resources
         ResourceManagerTemplate resultTemplate = visitor.getResultTemplate();
         this.addParametersAndVariables(resultTemplate);
@@ -1,15 +1,20 @@
 package io.github.edmm.plugins.cfn;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
 
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.BasicAWSCredentials;
 import io.github.edmm.core.plugin.AbstractLifecycle;
+import io.github.edmm.core.plugin.Fingerprint;
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.transformation.TransformationContext;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.model.component.Compute;
+import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.visitor.VisitorHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +34,7 @@ public class CloudFormationLifecycle extends AbstractLifecycle {
     @Override
     public void prepare() {
         AWSCredentials credentials = new BasicAWSCredentials("edmm", UUID.randomUUID().toString());
-        this.module = new CloudFormationModule(context.getFileAccess(), "eu-west-1", credentials);
+        this.module = new CloudFormationModule(context.getFileAccess(), "eu-west-1", credentials, getNameSeed());
         this.module.setKeyPair(false);
     }
 
@@ -37,19 +42,37 @@ public class CloudFormationLifecycle extends AbstractLifecycle {
     public void transform() {
         logger.info("Begin transformation to AWS CloudFormation...");
         CloudFormationVisitor visitor = new CloudFormationVisitor(context, module);
-        // Visit compute components first
-        VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
-        // ... then all others
-        VisitorHelper.visit(context.getModel().getComponents(), visitor);
-        VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        visit(context, visitor, () -> {
+            // Visit compute components first
+            VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
+            // ... then all others
+            VisitorHelper.visit(context.getModel().getComponents(), visitor);
+            VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        });
         // Write template file
         PluginFileAccess fileAccess = context.getFileAccess();
         try {
-            fileAccess.append("template.yaml", module.toString());
+            fileAccess.write("template.yaml", module.toString());
         } catch (IOException e) {
             logger.error("Failed to write template file", e);
             throw new TransformationException(e);
         }
         logger.info("Transformation to AWS CloudFormation successful");
     }
+
+    /**
+     * Derives the seed of the stack and bucket names from the naming salt and the content of the model, since bucket
+     * names are shared by all AWS accounts.
+     *
+     * @return {@code null} to use random names, if no naming salt has been set
+     */
+    private String getNameSeed() {
+        String salt = context.getTransformation().getNamingSalt();
+        if (salt == null) {
+            return null;
+        }
+        List<RootComponent> components = new ArrayList<>(context.getModel().getComponents());
+        components.sort(Comparator.comparing(RootComponent::getName));
+        return salt + ":" + new Fingerprint(context.getSourceDirectory()).add(components).hash();
+    }
 }
@@ -57,11 +57,15 @@ public class CloudFormationModule extends Module {
     private Set<String> authenticationSet;
     private Map<String, Map<String, String>> environmentMap;
 
-    public CloudFormationModule(PluginFileAccess fileAccess, String awsRegion, AWSCredentials awsCredentials) {
+    /**
+     * @param seed Derives stable stack and bucket names, should be unique to the model and its owner; random names
+     *             are used if {@code null}
+     */
+    public CloudFormationModule(PluginFileAccess fileAccess, String awsRegion, AWSCredentials awsCredentials, String seed) {
         this.id("").template(new Template());
         this.fileAccess = fileAccess;
-        this.stackName = CloudFormationUtils.getRandomStackName();
-        this.bucketName = CloudFormationUtils.getRandomBucketName();
+        this.stackName = seed != null ? CloudFormationUtils.getStackName(seed) : CloudFormationUtils.getRandomStackName();
+        this.bucketName = seed != null ? CloudFormationUtils.getBucketName(seed) : CloudFormationUtils.getRandomBucketName();
         this.awsRegion = awsRegion;
         this.awsCredentials = awsCredentials;
         this.keyNameVar = template.ref(KEY_NAME);
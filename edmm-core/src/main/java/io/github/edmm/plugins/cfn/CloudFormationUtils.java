@@ -1,9 +1,25 @@
 package io.github.edmm.plugins.cfn;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 public abstract class CloudFormationUtils {
 
+    /**
+     * Returns a bucket name derived from the given seed, so that repeated transformations of the same model produce
+     * identical output.
+     */
+    public static String getBucketName(String seed) {
+        return "edmm-bucket-" + UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns a stack name derived from the given seed, see {@link #getBucketName(String)}.
+     */
+    public static String getStackName(String seed) {
+        return "edmm-stack-" + UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8));
+    }
+
     public static String getRandomBucketName() {
         return "edmm-bucket-" + UUID.randomUUID();
     }
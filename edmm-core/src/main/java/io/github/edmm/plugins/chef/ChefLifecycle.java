@@ -34,7 +34,7 @@ public class ChefLifecycle extends AbstractLifecycle {
     public void transform() {
         LOGGER.info("Begin transformation to Chef...");
         ChefTransformer transformer = new ChefTransformer(context);
-        transformer.populateChefRepository();
+        visit(context, transformer, transformer::populateChefRepository);
         LOGGER.info("Transformation to Chef successful");
     }
 
@@ -1,6 +1,7 @@
 package io.github.edmm.plugins.chef;
 
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.TemplateHelper;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.TransformationContext;
 
@@ -12,6 +13,12 @@ public class ChefPlugin extends Plugin<ChefLifecycle> {
         super(CHEF);
     }
 
+    @Override
+    protected void init() {
+        TemplateHelper.preload(ChefPlugin.class, "/plugins/chef",
+                "chefignore", "shell_script_recipe.rb", "chef-provisioning.rb", "metadata.rb", "Policyfile.rb");
+    }
+
     @Override
     public ChefLifecycle getLifecycle(TransformationContext context) {
         return new ChefLifecycle(context);
@@ -10,8 +10,10 @@ import java.util.Map;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
+import io.github.edmm.core.plugin.Fingerprint;
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.plugin.TemplateHelper;
+import io.github.edmm.core.plugin.TopologicalOrder;
 import io.github.edmm.core.transformation.TransformationContext;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.model.Artifact;
@@ -24,8 +26,6 @@ import io.github.edmm.plugins.chef.model.Metadata;
 import io.github.edmm.plugins.chef.model.PolicyFile;
 import io.github.edmm.plugins.chef.model.ShellRecipe;
 import org.jgrapht.Graph;
-import org.jgrapht.alg.CycleDetector;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,42 +55,41 @@ public class ChefTransformer {
         PluginFileAccess fileAccess = context.getFileAccess();
 
         try {
-            CycleDetector<RootComponent, RootRelation> cycleDetector = new CycleDetector<>(context.getModel().getTopology());
-            if (cycleDetector.detectCycles()) {
-                throw new RuntimeException("The given topology is not acyclic");
-            } else {
-                // initialize templates
-                Template chefIgnore = cfg.getTemplate("chefignore");
-
-                // generate the chefignore file, currently a static file is used
-                fileAccess.append(COOKBOOK_CHEFIGNORE_FILENAME, TemplateHelper.toString(chefIgnore, null));
-
-                context.getModel().findComponentStacks().forEach(stack -> {
-                    try {
-                        // TODO check if compute node is present in the stack
-                        String stackName = stack.vertexSet()
-                                .stream()
-                                .filter(v -> v instanceof Compute)
-                                .findFirst()
-                                .get()
-                                .getNormalizedName();
-
-                        // sort the reversed topology topologically to have a global order
-                        TopologicalOrderIterator<RootComponent, RootRelation> iterator = new TopologicalOrderIterator<>(stack);
-
-                        List<String> runningOrder = new ArrayList<>();
-                        Map<String, Object> templateData = new HashMap<>();
-                        LOGGER.info("Generate a repository structure for application stack: " + stack.toString());
-
-                        while (iterator.hasNext()) {
-                            RootComponent component = iterator.next();
-                            Path cookbookPath = Paths.get(COOKBOOKS_FOLDER, component.getNormalizedName());
+            TopologicalOrder order = context.getModel().getTopologicalOrder();
+            order.requireAcyclic();
+            // initialize templates
+            Template chefIgnore = cfg.getTemplate("chefignore");
 
-                            generateMetadataFile(templateData, component, cookbookPath);
+            // generate the chefignore file, currently a static file is used
+            TemplateHelper.write(fileAccess, COOKBOOK_CHEFIGNORE_FILENAME, chefIgnore, null);
 
-                            // store cookbook names with the reference to default recipes
-                            // this lsit is concatenated for a run_list directive in a policy file
-                            runningOrder.add("'" + component.getNormalizedName() + "::default'");
+            context.getModel().findComponentStacks().forEach(stack -> {
+                try {
+                    // TODO check if compute node is present in the stack
+                    String stackName = stack.vertexSet()
+                            .stream()
+                            .filter(v -> v instanceof Compute)
+                            .findFirst()
+                            .get()
+                            .getNormalizedName();
+
+                    List<String> runningOrder = new ArrayList<>();
+                    LOGGER.info("Generate a repository structure for application stack: " + stack.toString());
+
+                    // restrict the global topological order to the components of this stack
+                    for (RootComponent component : order.getOrder(stack.vertexSet())) {
+                        Path cookbookPath = Paths.get(COOKBOOKS_FOLDER, component.getNormalizedName());
+
+                        // store cookbook names with the reference to default recipes
+                        // this lsit is concatenated for a run_list directive in a policy file
+                        runningOrder.add("'" + component.getNormalizedName() + "::default'");
+
+                        // a cookbook only depends on its component, hence it is only regenerated if the component has changed
+                        String inputs = new Fingerprint(context.getSourceDirectory()).add(component).hash();
+                        fileAccess.generate("cookbook/" + component.getNormalizedName(), inputs, () -> {
+                            // the data of a cookbook must only depend on its component, see the fingerprint above
+                            Map<String, Object> templateData = new HashMap<>();
+                            generateMetadataFile(templateData, component, cookbookPath);
 
                             LOGGER.info("Generate a cookbook for component " + component.getName());
                             Path recipePath = cookbookPath.resolve(COOKBOOK_RECIPES_FOLDER).resolve(COOKBOOK_DEFAULT_RECIPE_FILENAME);
@@ -101,13 +100,13 @@ public class ChefTransformer {
                                 LOGGER.info("generate a shell recipe for component: " + component.getName());
                                 generateShellRecipe(templateData, component, cookbookPath, recipePath);
                             }
-                        }
-                        generatePolicyFile(templateData, runningOrder, stackName);
-                    } catch (IOException e) {
-                        LOGGER.error("Failed to generate stacks for Chef: {}", e.getMessage(), e);
+                        });
                     }
-                });
-            }
+                    generatePolicyFile(runningOrder, stackName);
+                } catch (IOException e) {
+                    LOGGER.error("Failed to generate stacks for Chef: {}", e.getMessage(), e);
+                }
+            });
         } catch (IOException e) {
             LOGGER.error("Failed to write Chef cookbooks : {}", e.getMessage(), e);
         }
@@ -160,7 +159,7 @@ public class ChefTransformer {
         });
         templateData.put("tasks", recipes);
 
-        context.getFileAccess().append(recipePath.toString(), TemplateHelper.toString(shellRecipe, templateData));
+        TemplateHelper.write(context.getFileAccess(), recipePath.toString(), shellRecipe, templateData);
     }
 
     private void generateMachineRecipe(RootComponent component, Path recipePath) throws IOException {
@@ -171,25 +170,23 @@ public class ChefTransformer {
                 .orElseThrow(() -> new TransformationException("Error transforming Machine "));
         machineData.put("image", image);
 
-        context.getFileAccess().append(recipePath.toString(), TemplateHelper.toString(machineRecipe, machineData));
+        TemplateHelper.write(context.getFileAccess(), recipePath.toString(), machineRecipe, machineData);
     }
 
     private void generateMetadataFile(Map<String, Object> templateData, RootComponent component, Path cookbookPath) throws IOException {
         Template metadata = cfg.getTemplate("metadata.rb");
         templateData.put("metadata", Metadata.builder().name(component.getNormalizedName()).build());
-        context.getFileAccess().append(
-                cookbookPath.resolve(COOKBOOK_METADATA_FILENAME).toString(),
-                TemplateHelper.toString(metadata, templateData)
-        );
+        TemplateHelper.write(context.getFileAccess(), cookbookPath.resolve(COOKBOOK_METADATA_FILENAME).toString(), metadata, templateData);
     }
 
-    private void generatePolicyFile(Map<String, Object> templateData, List<String> runningOrder, String stackName) throws IOException {
+    private void generatePolicyFile(List<String> runningOrder, String stackName) throws IOException {
         // generate a policyfile per stack
         Template policyFile = cfg.getTemplate("Policyfile.rb");
+        Map<String, Object> templateData = new HashMap<>();
         PolicyFile pf = PolicyFile.builder().name(context.getModel().getName()).runningOrder(String.join(", ", runningOrder)).build();
         templateData.put("policyfile", pf);
 
         Path policyPath = Paths.get(POLICIES_FOLDER, stackName.concat("_").concat(POLICY_FILENAME));
-        context.getFileAccess().append(policyPath.toString(), TemplateHelper.toString(policyFile, templateData));
+        TemplateHelper.write(context.getFileAccess(), policyPath.toString(), policyFile, templateData);
     }
 }
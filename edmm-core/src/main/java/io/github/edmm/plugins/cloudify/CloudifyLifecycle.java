@@ -24,11 +24,13 @@ public class CloudifyLifecycle extends AbstractLifecycle {
     public void transform() {
         logger.info("Begin transformation to Cloudify Azure...");
         CloudifyAzureVisitor visitor = new CloudifyAzureVisitor(context);
-        // Visit compute components first
-        VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
-        // ... then all others
-        VisitorHelper.visit(context.getModel().getComponents(), visitor);
-        VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        visit(context, visitor, () -> {
+            // Visit compute components first
+            VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
+            // ... then all others
+            VisitorHelper.visit(context.getModel().getComponents(), visitor);
+            VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        });
         visitor.populateCloudifyFile();
         logger.info("Transformation to Cloudify Azure successful");
     }
@@ -1,6 +1,7 @@
 package io.github.edmm.plugins.cloudify;
 
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.TemplateHelper;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.TransformationContext;
 
@@ -12,6 +13,11 @@ public class CloudifyPlugin extends Plugin<CloudifyLifecycle> {
         super(CLOUDIFY);
     }
 
+    @Override
+    protected void init() {
+        TemplateHelper.preload(CloudifyPlugin.class, "/plugins/cloudify", "azure.yml");
+    }
+
     @Override
     public CloudifyLifecycle getLifecycle(TransformationContext context) {
         return new CloudifyLifecycle(context);
@@ -47,7 +47,7 @@ public class CloudifyAzureVisitor extends CloudifyVisitor {
         Map<String, Object> data = new HashMap<>();
         data.put("computes", computeInstances);
         try {
-            fileAccess.append(FILE_NAME, TemplateHelper.toString(cfg, "azure.yml", data));
+            TemplateHelper.write(fileAccess, FILE_NAME, cfg, "azure.yml", data);
         } catch (IOException e) {
             logger.error("Failed to write Terraform file", e);
             throw new TransformationException(e);
@@ -2,7 +2,7 @@ package io.github.edmm.plugins.compose;
 
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.transformation.TransformationContext;
-import io.github.edmm.docker.Container;
+import io.github.edmm.docker.BuildContextFormat;
 import io.github.edmm.plugins.compose.support.DockerComposeBuilder;
 import io.github.edmm.plugins.kubernetes.KubernetesLifecycle;
 import org.slf4j.Logger;
@@ -20,12 +20,26 @@ public class DockerComposeLifecycle extends KubernetesLifecycle {
     public void transform() {
         logger.info("Begin transformation to Docker Compose...");
         PluginFileAccess fileAccess = context.getFileAccess();
-        for (Container stack : containers) {
-            resolveBaseImage(stack);
-            buildDockerfile(stack, fileAccess);
-        }
+        buildDockerfiles(fileAccess);
         DockerComposeBuilder composeBuilder = new DockerComposeBuilder(containers, dependencyGraph, fileAccess);
         composeBuilder.populateComposeFile();
         logger.info("Transformation to Docker Compose successful");
     }
+
+    /**
+     * Docker Compose builds the images of its services independently of each other, hence a base image is not
+     * guaranteed to exist when the images using it are built.
+     */
+    @Override
+    protected boolean isBaseImageSharing() {
+        return false;
+    }
+
+    /**
+     * Docker Compose builds images from directories only.
+     */
+    @Override
+    protected BuildContextFormat getBuildContextFormat() {
+        return BuildContextFormat.DIRECTORY;
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.edmm.plugins.compose;
 
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.TemplateHelper;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.TransformationContext;
 
@@ -12,6 +13,11 @@ public class DockerComposePlugin extends Plugin<DockerComposeLifecycle> {
         super(DOCKER_COMPOSE);
     }
 
+    @Override
+    protected void init() {
+        TemplateHelper.preload(DockerComposePlugin.class, "/plugins/compose", "docker-compose.yml");
+    }
+
     @Override
     public DockerComposeLifecycle getLifecycle(TransformationContext context) {
         return new DockerComposeLifecycle(context);
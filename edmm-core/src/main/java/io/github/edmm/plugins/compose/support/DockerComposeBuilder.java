@@ -10,11 +10,9 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.plugin.TemplateHelper;
-import io.github.edmm.core.plugin.TopologyGraphHelper;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.docker.Container;
 import io.github.edmm.docker.DependencyGraph;
-import io.github.edmm.model.relation.ConnectsTo;
 import io.github.edmm.plugins.compose.DockerComposePlugin;
 import io.github.edmm.plugins.compose.model.Service;
 import org.slf4j.Logger;
@@ -47,8 +45,7 @@ public class DockerComposeBuilder {
         try {
             Map<String, Object> data = new HashMap<>();
             data.put("services", services);
-            String fileContent = TemplateHelper.toString(template, data);
-            fileAccess.append("/docker-compose.yml", fileContent);
+            TemplateHelper.write(fileAccess, "/docker-compose.yml", template, data);
         } catch (Exception e) {
             logger.error("Failed to create Docker Compose file", e);
             throw new TransformationException(e);
@@ -56,7 +53,7 @@ public class DockerComposeBuilder {
     }
 
     private void resolveDependencies(Container stack, List<String> dependencies) {
-        Set<Container> targetStacks = TopologyGraphHelper.getTargetComponents(dependencyGraph, stack, ConnectsTo.class);
+        Set<Container> targetStacks = dependencyGraph.getTargetStacks(stack);
         for (Container target : targetStacks) {
             for (Map.Entry<String, String> envVar : target.getEnvVars().entrySet()) {
                 stack.addEnvVar(envVar.getKey(), envVar.getValue());
@@ -21,11 +21,13 @@ public class HeatLifecycle extends AbstractLifecycle {
     public void transform() {
         logger.info("Begin transformation to Heat Orchestration Template...");
         HeatVisitor visitor = new HeatVisitor(context);
-        // Visit compute components first
-        VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
-        // ... then all others
-        VisitorHelper.visit(context.getModel().getComponents(), visitor);
-        VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        visit(context, visitor, () -> {
+            // Visit compute components first
+            VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
+            // ... then all others
+            VisitorHelper.visit(context.getModel().getComponents(), visitor);
+            VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        });
         visitor.populateHeatTemplate();
         logger.info("Transformation to Heat Orchestration Template successful");
     }
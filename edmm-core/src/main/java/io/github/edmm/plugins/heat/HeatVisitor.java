@@ -86,7 +86,7 @@ public class HeatVisitor implements ComponentVisitor, RelationVisitor {
     public void populateHeatTemplate() {
         PluginFileAccess fileAccess = context.getFileAccess();
         try {
-            fileAccess.append(template.getName(), template.toYaml());
+            template.write(fileAccess);
         } catch (IOException e) {
             logger.error("Failed to write Terraform file", e);
             throw new TransformationException(e);
@@ -2,9 +2,9 @@ package io.github.edmm.plugins.heat.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
@@ -22,7 +22,7 @@ public class Resource {
 
     public void addPropertyAssignment(String name, PropertyAssignment property) {
         if (properties == null) {
-            properties = new HashMap<>();
+            properties = new TreeMap<>();
         }
         properties.put(name, property);
     }
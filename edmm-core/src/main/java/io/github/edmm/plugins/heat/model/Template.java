@@ -1,22 +1,24 @@
 package io.github.edmm.plugins.heat.model;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.Map;
+import java.util.TreeMap;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
-import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.core.plugin.PluginFileAccess;
+import io.github.edmm.core.plugin.Serializer;
 import lombok.Data;
 
 @Data
 public class Template {
 
-    private static ObjectMapper mapper;
+    private static final Serializer SERIALIZER = createSerializer();
 
     @JsonIgnore
     private String name;
@@ -27,7 +29,7 @@ public class Template {
 
     public void addParameter(Parameter... parameters) {
         if (this.parameters == null) {
-            this.parameters = new HashMap<>();
+            this.parameters = new TreeMap<>();
         }
         for (Parameter parameter : parameters) {
             this.parameters.put(parameter.getName(), parameter);
@@ -36,7 +38,7 @@ public class Template {
 
     public void addResource(Resource... resources) {
         if (this.resources == null) {
-            this.resources = new HashMap<>();
+            this.resources = new TreeMap<>();
         }
         for (Resource resource : resources) {
             this.resources.put(resource.getName(), resource);
@@ -45,20 +47,27 @@ public class Template {
 
     @JsonIgnore
     public String toYaml() {
-        if (mapper == null) {
-            YAMLFactory f = new YAMLFactory();
-            f.enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
-            f.enable(YAMLGenerator.Feature.SPLIT_LINES);
-            f.disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER);
-            mapper = new ObjectMapper(f);
-            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            mapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
-        }
-        try {
-            return mapper.writeValueAsString(this);
-        } catch (JsonProcessingException e) {
-            throw new TransformationException(e);
-        }
+        return SERIALIZER.toString(this);
+    }
+
+    /**
+     * Streams this template into the file named after it.
+     */
+    public void write(PluginFileAccess fileAccess) throws IOException {
+        SERIALIZER.write(fileAccess, name, this);
+    }
+
+    private static Serializer createSerializer() {
+        YAMLFactory f = new YAMLFactory();
+        f.enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
+        f.enable(YAMLGenerator.Feature.SPLIT_LINES);
+        f.disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER);
+        ObjectMapper mapper = new ObjectMapper(f);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+        // Stable output for identical models, regardless of the map implementations used
+        mapper.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        return new Serializer(mapper);
     }
 
     @Override
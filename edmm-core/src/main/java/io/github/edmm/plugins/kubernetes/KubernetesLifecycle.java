@@ -1,15 +1,31 @@
 package io.github.edmm.plugins.kubernetes;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import io.github.edmm.core.plugin.AbstractLifecycle;
+import io.github.edmm.core.plugin.Fingerprint;
+import io.github.edmm.core.plugin.ParallelHelper;
 import io.github.edmm.core.plugin.PluginFileAccess;
+import io.github.edmm.core.plugin.Serializer;
 import io.github.edmm.core.plugin.TopologyGraphHelper;
+import io.github.edmm.core.plugin.TopologyIndex;
+import io.github.edmm.core.plugin.support.OutputGenerator;
 import io.github.edmm.core.transformation.TransformationContext;
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.docker.BaseImageExtractor;
+import io.github.edmm.docker.BuildContextFormat;
 import io.github.edmm.docker.Container;
 import io.github.edmm.docker.DependencyGraph;
+import io.github.edmm.docker.PortMapping;
 import io.github.edmm.model.component.Compute;
 import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.relation.HostedOn;
@@ -23,72 +39,171 @@ import org.slf4j.LoggerFactory;
 
 public class KubernetesLifecycle extends AbstractLifecycle {
 
+    public static final String BAKE_FILE = "docker-bake.json";
+
     private static final Logger logger = LoggerFactory.getLogger(KubernetesLifecycle.class);
 
     protected final TransformationContext context;
     protected final Graph<RootComponent, RootRelation> graph;
+    protected final TopologyIndex<RootComponent, RootRelation> index;
 
     protected List<Container> containers = new ArrayList<>();
     protected DependencyGraph dependencyGraph;
+    protected List<Container> baseImages = new ArrayList<>();
 
     public KubernetesLifecycle(TransformationContext context) {
         this.context = context;
         this.graph = context.getTopologyGraph();
+        this.index = context.getTopologyIndex();
     }
 
     @Override
     public void prepare() {
         List<Compute> computeComponents = TopologyGraphHelper.getVertices(graph, Compute.class);
+        Deque<RootComponent> path = new ArrayDeque<>();
         for (Compute compute : computeComponents) {
-            Container stack = new Container();
-            stack.addComponent(compute);
-            containers.add(stack);
-            populateComponentStacks(graph, containers, stack, compute);
+            populateComponentStacks(containers, path, compute);
         }
-        dependencyGraph = new DependencyGraph(containers, graph);
+        dependencyGraph = new DependencyGraph(containers, graph, index);
     }
 
+    /**
+     * Generates the Dockerfile and the resources of every container. Containers are generated concurrently if the
+     * transformation allows it, except for the propagation of environment variables along the dependencies of the
+     * containers, which is done in the order of the containers.
+     */
     @Override
     public void transform() {
         logger.info("Begin transformation to Kubernetes...");
         PluginFileAccess fileAccess = context.getFileAccess();
+        buildDockerfiles(fileAccess);
+        List<KubernetesResourceBuilder> resourceBuilders = new ArrayList<>();
         for (Container stack : containers) {
-            resolveBaseImage(stack);
-            buildDockerfile(stack, fileAccess);
-        }
-        for (Container stack : containers) {
-            // Build Kubernetes resource files
             KubernetesResourceBuilder resourceBuilder = new KubernetesResourceBuilder(stack, dependencyGraph, fileAccess);
-            resourceBuilder.populateResources();
+            resourceBuilder.resolveEnvVars();
+            resourceBuilders.add(resourceBuilder);
         }
+        ParallelHelper.forEach(resourceBuilders, getParallelism(), resourceBuilder -> {
+            // Build Kubernetes resource files
+            Container stack = resourceBuilder.getStack();
+            String inputs = new Fingerprint(context.getSourceDirectory())
+                    .add(stack.getName())
+                    .add(stack.getEnvVars())
+                    .add(stack.getPorts().stream().map(PortMapping::toString).collect(Collectors.joining(",")))
+                    .add(resourceBuilder.getSettings().toString())
+                    .hash();
+            generate(fileAccess, "resources/" + stack.getName(), inputs, resourceBuilder::writeResources);
+        });
         logger.info("Transformation to Kubernetes successful");
     }
 
+    /**
+     * Builds the Dockerfiles of all containers. Components shared by several containers are built into shared base
+     * images, which are listed together with the containers in a Docker Bake file ({@value #BAKE_FILE}), so that
+     * {@code docker buildx bake} builds every base image before the containers using it. Bake cannot build from
+     * archives, hence the file is only written for build contexts in directories.
+     */
+    protected void buildDockerfiles(PluginFileAccess fileAccess) {
+        ParallelHelper.forEach(containers, getParallelism(), this::resolveBaseImage);
+        baseImages = isBaseImageSharing() ? BaseImageExtractor.extract(containers) : new ArrayList<>();
+        List<Container> images = new ArrayList<>(baseImages);
+        images.addAll(containers);
+        ParallelHelper.forEach(images, getParallelism(), stack -> buildDockerfile(stack, fileAccess));
+        if (!baseImages.isEmpty() && getBuildContextFormat() == BuildContextFormat.DIRECTORY) {
+            writeBakeFile(images, fileAccess);
+        }
+    }
+
+    private void writeBakeFile(List<Container> images, PluginFileAccess fileAccess) {
+        Map<String, Object> targets = new TreeMap<>();
+        for (Container image : images) {
+            Map<String, Object> target = new TreeMap<>();
+            target.put("context", image.getName());
+            target.put("tags", Collections.singletonList(image.getLabel() + ":latest"));
+            Container sharedBase = image.getSharedBase();
+            if (sharedBase != null) {
+                target.put("contexts", Collections.singletonMap(sharedBase.getLabel(), "target:" + sharedBase.getName()));
+            }
+            targets.put(image.getName(), target);
+        }
+        Map<String, Object> document = new TreeMap<>();
+        document.put("group", Collections.singletonMap("default", Collections.singletonMap("targets",
+                containers.stream().map(Container::getName).collect(Collectors.toList()))));
+        document.put("target", targets);
+        try {
+            Serializer.JSON.write(fileAccess, BAKE_FILE, document);
+        } catch (IOException e) {
+            logger.error("Failed to write Docker Bake file", e);
+            throw new TransformationException(e);
+        }
+    }
+
+    /**
+     * @return {@code true} if components shared by several containers are built into shared base images, which
+     * requires a build tool building the base images first
+     */
+    protected boolean isBaseImageSharing() {
+        return true;
+    }
+
+    protected int getParallelism() {
+        return context.getTransformation().getParallelism();
+    }
+
+    protected BuildContextFormat getBuildContextFormat() {
+        return context.getTransformation().getBuildContextFormat();
+    }
+
     protected void resolveBaseImage(Container stack) {
         ImageMappingVisitor imageMapper = new ImageMappingVisitor();
-        stack.getComponents().forEach(component -> component.accept(imageMapper));
+        visit(context, imageMapper, () -> stack.getComponents().forEach(component -> component.accept(imageMapper)));
         stack.setBaseImage(imageMapper.getBaseImage());
     }
 
+    /**
+     * Builds the Dockerfile of the given stack. Ports and environment variables of the stack are always collected,
+     * since the output of other stacks depends on them, while the Dockerfile and artifacts are only written if the
+     * components of the stack have changed since the previous incremental transformation.
+     */
     protected void buildDockerfile(Container stack, PluginFileAccess fileAccess) {
-        DockerfileBuildingVisitor dockerfileBuilder = new DockerfileBuildingVisitor(stack, fileAccess);
-        dockerfileBuilder.populateDockerfile();
+        DockerfileBuildingVisitor dockerfileBuilder = new DockerfileBuildingVisitor(stack, fileAccess, getBuildContextFormat());
+        visit(context, dockerfileBuilder, () -> {
+            dockerfileBuilder.collect();
+            String inputs = new Fingerprint(context.getSourceDirectory())
+                    .add(stack.getName())
+                    .add(stack.getBaseImage())
+                    .add(stack.getSharedBase() != null ? stack.getSharedBase().getName() : "")
+                    .add(stack.getComponents())
+                    .hash();
+            generate(fileAccess, "image/" + stack.getName(), inputs, dockerfileBuilder::write);
+        });
+    }
+
+    protected static void generate(PluginFileAccess fileAccess, String key, String inputs, OutputGenerator generator) {
+        try {
+            fileAccess.generate(key, inputs, generator);
+        } catch (IOException e) {
+            throw new TransformationException(e);
+        }
     }
 
-    private void populateComponentStacks(Graph<RootComponent, RootRelation> graph, List<Container> stacks, Container stack, RootComponent component) {
-        Set<RootComponent> sourceComponents = TopologyGraphHelper.getSourceComponents(graph, component, HostedOn.class);
-        if (sourceComponents.size() == 1) {
-            RootComponent source = sourceComponents.stream().findFirst().orElseThrow(IllegalStateException::new);
-            stack.addComponent(source);
-            populateComponentStacks(graph, stacks, stack, source);
+    /**
+     * Creates a stack for every path of hosted-on relations from the given component to a component not hosting
+     * any other component. The path is shared while descending and a stack is only created at its end, hence
+     * intermediate stacks are never copied or removed.
+     */
+    private void populateComponentStacks(List<Container> stacks, Deque<RootComponent> path, RootComponent component) {
+        path.addLast(component);
+        Set<RootComponent> sourceComponents = index.getSources(component, HostedOn.class);
+        if (sourceComponents.isEmpty()) {
+            Container stack = new Container();
+            stack.setComponents(new ArrayList<>(path));
+            stacks.add(stack);
         } else {
             for (RootComponent source : sourceComponents) {
-                Container newStack = new Container(stack);
-                newStack.addComponent(source);
-                stacks.add(newStack);
-                stacks.remove(stack);
-                populateComponentStacks(graph, stacks, newStack, source);
+                populateComponentStacks(stacks, path, source);
             }
         }
+        path.removeLast();
     }
 }
@@ -0,0 +1,55 @@
+package io.github.edmm.plugins.kubernetes.model;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.HorizontalPodAutoscaler;
+import io.fabric8.kubernetes.api.model.HorizontalPodAutoscalerBuilder;
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.docker.Container;
+
+/**
+ * Scales the deployment of a stack between its minimum and maximum number of replicas based on the CPU utilization.
+ */
+public final class AutoscalerResource implements KubernetesResource {
+
+    private HorizontalPodAutoscaler autoscaler;
+    private final Container stack;
+    private final ResourceSettings settings;
+
+    public AutoscalerResource(Container stack, ResourceSettings settings) {
+        this.stack = stack;
+        this.settings = settings;
+    }
+
+    @Override
+    public void build() {
+        autoscaler = new HorizontalPodAutoscalerBuilder()
+                .withNewMetadata()
+                .withName(stack.getAutoscalerName())
+                .addToLabels("app", stack.getLabel())
+                .endMetadata()
+                .withNewSpec()
+                .withNewScaleTargetRef()
+                .withApiVersion("apps/v1")
+                .withKind("Deployment")
+                .withName(stack.getLabel())
+                .endScaleTargetRef()
+                .withMinReplicas(settings.getMinReplicas())
+                .withMaxReplicas(settings.getMaxReplicas())
+                .withTargetCPUUtilizationPercentage(settings.getTargetCpuUtilization())
+                .endSpec()
+                .build();
+    }
+
+    @Override
+    public HasMetadata getResource() {
+        if (autoscaler == null) {
+            throw new TransformationException("Resource not yet built, call build() first");
+        }
+        return autoscaler;
+    }
+
+    @Override
+    public String getName() {
+        return stack.getAutoscalerName();
+    }
+}
@@ -2,28 +2,25 @@ package io.github.edmm.plugins.kubernetes.model;
 
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.Lists;
 import io.fabric8.kubernetes.api.model.ContainerBuilder;
 import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
-import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.docker.Container;
 import io.github.edmm.docker.PortMapping;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public final class DeploymentResource implements KubernetesResource {
 
-    private static final Logger logger = LoggerFactory.getLogger(DeploymentResource.class);
-
     private Deployment deployment;
     private final Container stack;
+    private final ResourceSettings settings;
 
-    public DeploymentResource(Container stack) {
+    public DeploymentResource(Container stack, ResourceSettings settings) {
         this.stack = stack;
+        this.settings = settings;
     }
 
     @Override
@@ -38,6 +35,7 @@ public final class DeploymentResource implements KubernetesResource {
                 .addAllToEnv(stack.getEnvVars().entrySet().stream()
                         .map(e -> new EnvVar(e.getKey(), e.getValue(), null))
                         .collect(Collectors.toSet()))
+                .withResources(settings.toResourceRequirements())
                 .build();
         deployment = new DeploymentBuilder()
                 .withNewMetadata()
@@ -46,7 +44,7 @@ public final class DeploymentResource implements KubernetesResource {
                 .addToLabels("app", stack.getLabel())
                 .endMetadata()
                 .withNewSpec()
-                .withReplicas(1)
+                .withReplicas(settings.getMinReplicas())
                 .withNewSelector()
                 .addToMatchLabels("app", stack.getLabel())
                 .endSelector()
@@ -63,16 +61,11 @@ public final class DeploymentResource implements KubernetesResource {
     }
 
     @Override
-    public String toYaml() {
+    public HasMetadata getResource() {
         if (deployment == null) {
             throw new TransformationException("Resource not yet built, call build() first");
         }
-        try {
-            return SerializationUtils.dumpAsYaml(deployment);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to dump YAML", e);
-            throw new TransformationException(e);
-        }
+        return deployment;
     }
 
     @Override
@@ -0,0 +1,50 @@
+package io.github.edmm.plugins.kubernetes.model;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudget;
+import io.fabric8.kubernetes.api.model.policy.PodDisruptionBudgetBuilder;
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.docker.Container;
+
+/**
+ * Allows voluntary disruptions, e.g., draining a node, to evict only one pod of a replicated deployment at a time.
+ */
+public final class DisruptionBudgetResource implements KubernetesResource {
+
+    private PodDisruptionBudget budget;
+    private final Container stack;
+
+    public DisruptionBudgetResource(Container stack) {
+        this.stack = stack;
+    }
+
+    @Override
+    public void build() {
+        budget = new PodDisruptionBudgetBuilder()
+                .withNewMetadata()
+                .withName(stack.getDisruptionBudgetName())
+                .addToLabels("app", stack.getLabel())
+                .endMetadata()
+                .withNewSpec()
+                .withMaxUnavailable(new IntOrString(1))
+                .withNewSelector()
+                .addToMatchLabels("app", stack.getLabel())
+                .endSelector()
+                .endSpec()
+                .build();
+    }
+
+    @Override
+    public HasMetadata getResource() {
+        if (budget == null) {
+            throw new TransformationException("Resource not yet built, call build() first");
+        }
+        return budget;
+    }
+
+    @Override
+    public String getName() {
+        return stack.getDisruptionBudgetName();
+    }
+}
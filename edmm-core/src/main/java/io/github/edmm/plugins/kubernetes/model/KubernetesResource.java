@@ -1,10 +1,21 @@
 package io.github.edmm.plugins.kubernetes.model;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.github.edmm.core.plugin.Serializer;
+
 public interface KubernetesResource {
 
     void build();
 
-    String toYaml();
+    /**
+     * @return the built resource
+     * @throws io.github.edmm.core.transformation.TransformationException if the resource has not been built yet
+     */
+    HasMetadata getResource();
+
+    default String toYaml() {
+        return Serializer.YAML.toString(getResource());
+    }
 
     String getName();
 }
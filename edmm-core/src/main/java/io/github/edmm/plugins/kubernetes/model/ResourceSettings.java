@@ -0,0 +1,156 @@
+package io.github.edmm.plugins.kubernetes.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.ResourceRequirementsBuilder;
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.docker.Container;
+import io.github.edmm.model.Property;
+import io.github.edmm.model.component.RootComponent;
+import io.github.edmm.model.support.Attribute;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Resources and replicas of a container stack, read from the properties of its components. Components override the
+ * properties of the components hosting them, e.g., an application may request more memory than its compute node.
+ * <p>
+ * The container requests {@code cpu} and {@code memory}, which are limited by {@code cpu_limit} and {@code
+ * memory_limit}, all given as Kubernetes quantities like {@code 500m} or {@code 512Mi}. The memory limit defaults to
+ * the requested memory, CPU is only limited if configured. A deployment runs {@code min_replicas} pods and is
+ * autoscaled up to {@code max_replicas} pods based on the {@code target_cpu_utilization} in percent of the requested
+ * CPU.
+ */
+@Value
+public class ResourceSettings {
+
+    public static final Attribute<String> CPU = new Attribute<>("cpu", String.class);
+    public static final Attribute<String> MEMORY = new Attribute<>("memory", String.class);
+    public static final Attribute<String> CPU_LIMIT = new Attribute<>("cpu_limit", String.class);
+    public static final Attribute<String> MEMORY_LIMIT = new Attribute<>("memory_limit", String.class);
+    public static final Attribute<Integer> MIN_REPLICAS = new Attribute<>("min_replicas", Integer.class);
+    public static final Attribute<Integer> MAX_REPLICAS = new Attribute<>("max_replicas", Integer.class);
+    public static final Attribute<Integer> TARGET_CPU_UTILIZATION = new Attribute<>("target_cpu_utilization", Integer.class);
+
+    public static final int DEFAULT_TARGET_CPU_UTILIZATION = 80;
+
+    // Non-negative Kubernetes quantity, i.e., a decimal number with an optional binary or decimal SI suffix or exponent
+    private static final Pattern QUANTITY = Pattern.compile(
+            "(?:[0-9]+(?:\\.[0-9]*)?|\\.[0-9]+)(?:[KMGTPE]i|[numkMGTPE]|[eE][+-]?[0-9]+)?");
+
+    private final String cpu;
+    private final String memory;
+    private final String cpuLimit;
+    private final String memoryLimit;
+    private final int minReplicas;
+    private final int maxReplicas;
+    private final int targetCpuUtilization;
+
+    /**
+     * @throws TransformationException if a property has an invalid value
+     */
+    public static ResourceSettings of(@NonNull Container stack) {
+        Map<String, String> values = new HashMap<>();
+        // Components are ordered from the compute node to the top of the stack
+        for (RootComponent component : stack.getComponents()) {
+            for (Property property : component.getProperties().values()) {
+                if (property.getValue() != null) {
+                    values.put(property.getName(), property.getValue());
+                }
+            }
+        }
+        String memory = getQuantity(stack, values, MEMORY);
+        int minReplicas = getInteger(stack, values, MIN_REPLICAS, 1);
+        int maxReplicas = getInteger(stack, values, MAX_REPLICAS, minReplicas);
+        ResourceSettings settings = new ResourceSettings(
+                getQuantity(stack, values, CPU),
+                memory,
+                getQuantity(stack, values, CPU_LIMIT),
+                values.containsKey(MEMORY_LIMIT.getName()) ? getQuantity(stack, values, MEMORY_LIMIT) : memory,
+                minReplicas,
+                maxReplicas,
+                getInteger(stack, values, TARGET_CPU_UTILIZATION, DEFAULT_TARGET_CPU_UTILIZATION));
+        if (minReplicas < 1 || maxReplicas < minReplicas) {
+            throw new TransformationException(String.format("Stack '%s' requires 1 <= %s <= %s, but got %d and %d",
+                    stack.getName(), MIN_REPLICAS.getName(), MAX_REPLICAS.getName(), minReplicas, maxReplicas));
+        }
+        if (settings.getTargetCpuUtilization() < 1) {
+            throw new TransformationException(String.format("Property '%s' of stack '%s' must be positive",
+                    TARGET_CPU_UTILIZATION.getName(), stack.getName()));
+        }
+        if (settings.isAutoscaled() && settings.getCpu() == null) {
+            throw new TransformationException(String.format("Stack '%s' is autoscaled based on its CPU utilization, " +
+                    "which requires the property '%s'", stack.getName(), CPU.getName()));
+        }
+        return settings;
+    }
+
+    /**
+     * Whether the number of replicas is scaled by a {@link AutoscalerResource}.
+     */
+    public boolean isAutoscaled() {
+        return maxReplicas > minReplicas;
+    }
+
+    /**
+     * Whether the deployment may run more than one pod, which is protected by a {@link DisruptionBudgetResource}.
+     */
+    public boolean isReplicated() {
+        return maxReplicas > 1;
+    }
+
+    /**
+     * @return the requests and limits of the container, {@code null} if none are configured
+     */
+    public ResourceRequirements toResourceRequirements() {
+        ResourceRequirementsBuilder builder = new ResourceRequirementsBuilder();
+        boolean empty = true;
+        if (cpu != null) {
+            builder.addToRequests("cpu", new Quantity(cpu));
+            empty = false;
+        }
+        if (memory != null) {
+            builder.addToRequests("memory", new Quantity(memory));
+            empty = false;
+        }
+        if (cpuLimit != null) {
+            builder.addToLimits("cpu", new Quantity(cpuLimit));
+            empty = false;
+        }
+        if (memoryLimit != null) {
+            builder.addToLimits("memory", new Quantity(memoryLimit));
+            empty = false;
+        }
+        return empty ? null : builder.build();
+    }
+
+    private static String getQuantity(Container stack, Map<String, String> values, Attribute<String> attribute) {
+        String value = values.get(attribute.getName());
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        if (!QUANTITY.matcher(value).matches()) {
+            throw new TransformationException(String.format("Property '%s' of stack '%s' must be a Kubernetes " +
+                    "quantity like '500m' or '512Mi', but is '%s'", attribute.getName(), stack.getName(), value));
+        }
+        return value;
+    }
+
+    private static int getInteger(Container stack, Map<String, String> values, Attribute<Integer> attribute, int defaultValue) {
+        String value = values.get(attribute.getName());
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new TransformationException(String.format("Property '%s' of stack '%s' must be an integer, but is '%s'",
+                    attribute.getName(), stack.getName(), value), e);
+        }
+    }
+}
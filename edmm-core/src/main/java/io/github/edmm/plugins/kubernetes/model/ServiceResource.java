@@ -3,21 +3,16 @@ package io.github.edmm.plugins.kubernetes.model;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServiceBuilder;
 import io.fabric8.kubernetes.api.model.ServicePort;
-import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.docker.Container;
 import io.github.edmm.docker.PortMapping;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public final class ServiceResource implements KubernetesResource {
 
-    private static final Logger logger = LoggerFactory.getLogger(ServiceResource.class);
-
     private Service service;
     private final Container stack;
 
@@ -42,16 +37,11 @@ public final class ServiceResource implements KubernetesResource {
     }
 
     @Override
-    public String toYaml() {
+    public HasMetadata getResource() {
         if (service == null) {
             throw new TransformationException("Resource not yet built, call build() first");
         }
-        try {
-            return SerializationUtils.dumpAsYaml(service);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to dump YAML", e);
-            throw new TransformationException(e);
-        }
+        return service;
     }
 
     @Override
@@ -1,15 +1,39 @@
 package io.github.edmm.plugins.kubernetes.support;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import io.github.edmm.core.parser.support.DefaultKeys;
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.docker.BuildContextArchive;
+import io.github.edmm.docker.BuildContextFormat;
 import io.github.edmm.docker.Container;
 import io.github.edmm.docker.DockerfileBuilder;
+import io.github.edmm.docker.DockerfileBuilder.Layer;
+import io.github.edmm.docker.DockerfileBuilder.LayerOrdering;
 import io.github.edmm.docker.FileMapping;
 import io.github.edmm.docker.PortMapping;
+import io.github.edmm.docker.support.CacheMount;
 import io.github.edmm.model.Artifact;
 import io.github.edmm.model.Operation;
+import io.github.edmm.model.Property;
 import io.github.edmm.model.component.Compute;
 import io.github.edmm.model.component.MysqlDatabase;
 import io.github.edmm.model.component.MysqlDbms;
@@ -17,6 +41,8 @@ import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.component.Tomcat;
 import io.github.edmm.model.component.WebApplication;
 import io.github.edmm.model.visitor.ComponentVisitor;
+import io.github.edmm.plugins.kubernetes.model.ResourceSettings;
+import io.github.edmm.utils.Consts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,60 +50,334 @@ import static io.github.edmm.model.component.WebServer.PORT;
 
 public class DockerfileBuildingVisitor implements ComponentVisitor {
 
+    /**
+     * Optional component property denoting the files produced by the create operation of the component. If set, the
+     * create operation runs in a separate build stage together with the artifacts of the component, and only these
+     * files are copied into the final image.
+     */
+    public static final String BUILD_OUTPUT = "build_output";
+
     private static final Logger logger = LoggerFactory.getLogger(DockerfileBuildingVisitor.class);
+    // Properties configuring the transformation rather than the components, see ResourceSettings
+    private static final Set<String> ENV_BLACKLIST = new HashSet<>(Arrays.asList("key_name", "public_key", BUILD_OUTPUT,
+            ResourceSettings.CPU.getName(), ResourceSettings.MEMORY.getName(), ResourceSettings.CPU_LIMIT.getName(),
+            ResourceSettings.MEMORY_LIMIT.getName(), ResourceSettings.MIN_REPLICAS.getName(),
+            ResourceSettings.MAX_REPLICAS.getName(), ResourceSettings.TARGET_CPU_UTILIZATION.getName()));
+    private static final Pattern APT = Pattern.compile("\\bapt(-get)?\\s");
+    private static final Pattern MAVEN = Pattern.compile("\\bmvnw?\\s");
+    private static final Pattern NPM = Pattern.compile("\\bnpm\\s");
+    // Debian-based images delete downloaded packages after every installation, which defeats the apt cache mount
+    private static final String KEEP_APT_CACHE = "rm -f /etc/apt/apt.conf.d/docker-clean && " +
+            "echo 'Binary::apt::APT::Keep-Downloaded-Packages \"true\";' > /etc/apt/apt.conf.d/keep-cache";
 
     private final Container stack;
     private final PluginFileAccess fileAccess;
     private final DockerfileBuilder builder;
+    private final Map<RootComponent, Map<String, String>> envVars = new HashMap<>();
+    private final Set<DockerfileBuilder> aptCacheEnabled = new HashSet<>();
+    private final Map<String, String> contextFiles = new LinkedHashMap<>();
+    private final BuildContextFormat format;
 
     public DockerfileBuildingVisitor(Container stack, PluginFileAccess fileAccess) {
+        this(stack, fileAccess, BuildContextFormat.DIRECTORY);
+    }
+
+    public DockerfileBuildingVisitor(Container stack, PluginFileAccess fileAccess, BuildContextFormat format) {
         this.stack = stack;
         this.fileAccess = fileAccess;
-        this.builder = new DockerfileBuilder().compress();
-        this.builder.from(stack.getBaseImage());
-        this.builder.workdir("/opt/" + stack.getName());
+        this.format = format;
+        this.builder = new DockerfileBuilder().compress().layerOrdering(LayerOrdering.CACHE);
     }
 
     public void populateDockerfile() {
-        String targetDirectory = stack.getName();
+        collect();
+        write();
+    }
+
+    /**
+     * Visits the components of the stack, which collects the ports, environment variables and artifacts of the
+     * stack.
+     */
+    public void collect() {
         stack.getComponents().forEach(component -> component.accept(this));
+    }
+
+    /**
+     * Copies the artifacts of the stack and writes its Dockerfile, requires {@link #collect()}.
+     * <p>
+     * Instructions are ordered for the layer cache: operations run in the hosting order of their components, each
+     * script is added right before it is run, and artifacts and environment variables of a component are added right
+     * before the first operation of the component or of a component hosted on it. Artifacts not needed by any
+     * operation are added last. Operations using apt, Maven or npm get a BuildKit cache mount for the respective
+     * package cache.
+     * <p>
+     * Components contained in the shared base image of the stack are skipped. A shared base image itself neither
+     * exposes ports nor starts anything.
+     * <p>
+     * If a component produces a build output, see {@link #BUILD_OUTPUT}, the operations preceding its create operation
+     * (i.e., those of the components it is hosted on) run in a stage named {@code <component>_base}. Both the build
+     * stage of the component and the rest of the image are based on this stage.
+     */
+    public void write() {
         try {
-            for (FileMapping mapping : stack.getArtifacts()) {
-                String sourcePath = mapping.getArtifact().getValue();
-                String filename = determineFilename(mapping.getArtifact());
-                String targetPath = targetDirectory + "/" + filename;
-                fileAccess.copy(sourcePath, targetPath);
-                builder.add("./" + filename, filename);
+            List<FileMapping> artifacts = new ArrayList<>(getOwn(stack.getArtifacts()));
+            List<FileMapping> operations = getOwn(stack.getOperations());
+            Set<String> declaredEnv = new HashSet<>();
+            String base = stack.getSharedBase() != null ? stack.getSharedBase().getLabel() : stack.getBaseImage();
+            DockerfileBuilder baseStage = null;
+            FileMapping pendingBuild = null;
+            int start = 0;
+            for (int i = 0; i < operations.size(); i++) {
+                FileMapping mapping = operations.get(i);
+                if (!getBuildOutput(mapping).isPresent()) {
+                    continue;
+                }
+                List<FileMapping> hostOperations = operations.subList(start, i);
+                if (!hostOperations.isEmpty() || pendingBuild != null) {
+                    String stageName = mapping.getComponent().getNormalizedName() + "_base";
+                    DockerfileBuilder stage = newStage(base, stageName, baseStage);
+                    copyBuildOutput(stage, pendingBuild);
+                    addOperations(stage, hostOperations, artifacts, declaredEnv);
+                    builder.stage(stage);
+                    base = stageName;
+                    baseStage = stage;
+                }
+                addBuildStage(mapping, artifacts, base, baseStage, declaredEnv);
+                pendingBuild = mapping;
+                start = i + 1;
+            }
+            builder.from(base).workdir("/opt/" + stack.getName());
+            inheritAptCache(baseStage, builder);
+            copyBuildOutput(builder, pendingBuild);
+            for (RootComponent component : getOwnComponents()) {
+                declareEnv(builder, component, declaredEnv);
             }
-            for (FileMapping mapping : stack.getOperations()) {
-                String sourcePath = mapping.getArtifact().getValue();
-                String filename = mapping.getComponent().getNormalizedName() +
-                        "_" + determineFilename(mapping.getArtifact());
-                String targetPath = targetDirectory + "/" + filename;
-                fileAccess.copy(sourcePath, targetPath);
-                builder.add("./" + filename, filename);
-                builder.run("./" + filename);
+            addOperations(builder, operations.subList(start, operations.size()), artifacts, declaredEnv);
+            for (FileMapping artifact : artifacts) {
+                addArtifact(builder, artifact, Layer.ARTIFACT);
+            }
+            if (stack.isShared()) {
+                writeBuildContext(builder.build());
+                return;
             }
             // Expose ports
             stack.getPorts().forEach(port -> builder.expose(port.getValue()));
             // Add final CMD statement
             if (!stack.getStartOperations().isEmpty()) {
                 FileMapping mapping = stack.getStartOperations().get(stack.getStartOperations().size() - 1);
-                String sourcePath = mapping.getArtifact().getValue();
-                String filename = mapping.getComponent().getNormalizedName() +
-                        "_" + determineFilename(mapping.getArtifact());
-                String targetPath = targetDirectory + "/" + filename;
-                fileAccess.copy(sourcePath, targetPath);
-                builder.add("./" + filename, filename);
+                String filename = addOperation(builder, mapping, Layer.START);
                 builder.cmd("./" + filename);
             }
-            fileAccess.append(targetDirectory + "/Dockerfile", builder.build());
+            writeBuildContext(builder.build());
         } catch (Exception e) {
             logger.error("Failed to create Dockerfile for stack '{}'", stack.getName(), e);
             throw new TransformationException(e);
         }
     }
 
+    /**
+     * Adds the given operations, each preceded by the artifacts of its component and of the components it is hosted
+     * on which have not been added yet.
+     */
+    private void addOperations(DockerfileBuilder target, List<FileMapping> operations, List<FileMapping> artifacts,
+                               Set<String> declaredEnv) {
+        for (FileMapping mapping : operations) {
+            declareEnv(target, mapping.getComponent(), declaredEnv);
+            Iterator<FileMapping> iterator = artifacts.iterator();
+            while (iterator.hasNext()) {
+                FileMapping artifact = iterator.next();
+                if (indexOf(artifact) <= indexOf(mapping)) {
+                    addArtifact(target, artifact, Layer.OPERATION);
+                    iterator.remove();
+                }
+            }
+            String filename = addOperation(target, mapping, Layer.OPERATION);
+            addRun(target, filename, mapping, getRequiredEnvVars(mapping.getComponent()).keySet());
+        }
+    }
+
+    /**
+     * Runs the create operation of a component in a separate build stage based on the given image, which contains
+     * the components the component is hosted on. The artifacts of the component are only added to the build stage,
+     * only the build output is copied into the image, see {@link #copyBuildOutput(DockerfileBuilder, FileMapping)}.
+     */
+    private void addBuildStage(FileMapping mapping, List<FileMapping> artifacts, String base,
+                               DockerfileBuilder baseStage, Set<String> declaredEnv) {
+        RootComponent component = mapping.getComponent();
+        DockerfileBuilder stage = newStage(base, getBuildStageName(component), baseStage);
+        // Variables declared by the base stage are inherited
+        declareEnv(stage, component, new HashSet<>(declaredEnv));
+        Iterator<FileMapping> iterator = artifacts.iterator();
+        while (iterator.hasNext()) {
+            FileMapping artifact = iterator.next();
+            if (artifact.getComponent().equals(component)) {
+                addArtifact(stage, artifact, Layer.OPERATION);
+                iterator.remove();
+            }
+        }
+        String filename = addOperation(stage, mapping, Layer.OPERATION);
+        addRun(stage, filename, mapping, getRequiredEnvVars(component).keySet());
+        builder.stage(stage);
+    }
+
+    private void copyBuildOutput(DockerfileBuilder target, FileMapping build) {
+        if (build != null) {
+            String buildOutput = getBuildOutput(build).orElseThrow(IllegalStateException::new);
+            target.layer(Layer.OPERATION).copyFrom(getBuildStageName(build.getComponent()), buildOutput, buildOutput);
+        }
+    }
+
+    private String getBuildStageName(RootComponent component) {
+        return component.getNormalizedName() + "_build";
+    }
+
+    private DockerfileBuilder newStage(String base, String stageName, DockerfileBuilder baseStage) {
+        DockerfileBuilder stage = new DockerfileBuilder().compress().layerOrdering(LayerOrdering.CACHE)
+                .from(base, stageName)
+                .workdir("/opt/" + stack.getName());
+        inheritAptCache(baseStage, stage);
+        return stage;
+    }
+
+    private void inheritAptCache(DockerfileBuilder baseStage, DockerfileBuilder stage) {
+        if (baseStage != null && aptCacheEnabled.contains(baseStage)) {
+            aptCacheEnabled.add(stage);
+        }
+    }
+
+    /**
+     * Declares the environment variables of the given component and of the own components it is hosted on, unless
+     * they have been declared already.
+     */
+    private void declareEnv(DockerfileBuilder target, RootComponent component, Set<String> declaredEnv) {
+        List<RootComponent> components = getOwnComponents();
+        for (RootComponent current : components) {
+            envVars.getOrDefault(current, Collections.emptyMap()).forEach((name, value) -> {
+                if (declaredEnv.add(name)) {
+                    target.env(name, value);
+                }
+            });
+            if (current.equals(component)) {
+                break;
+            }
+        }
+    }
+
+    private void addArtifact(DockerfileBuilder target, FileMapping mapping, Layer layer) {
+        String filename = determineFilename(mapping.getArtifact());
+        contextFiles.put(filename, mapping.getArtifact().getValue());
+        target.layer(layer).add("./" + filename, filename);
+    }
+
+    private String addOperation(DockerfileBuilder target, FileMapping mapping, Layer layer) {
+        String filename = mapping.getComponent().getNormalizedName() +
+                "_" + determineFilename(mapping.getArtifact());
+        contextFiles.put(filename, mapping.getArtifact().getValue());
+        target.layer(layer).add("./" + filename, filename);
+        return filename;
+    }
+
+    /**
+     * Writes the Dockerfile and all files added by it, either into the directory of the stack or streamed into an
+     * archive next to it, see {@link BuildContextFormat}.
+     */
+    private void writeBuildContext(String dockerfile) throws IOException {
+        String targetDirectory = stack.getName();
+        if (format == BuildContextFormat.DIRECTORY) {
+            for (Map.Entry<String, String> file : contextFiles.entrySet()) {
+                fileAccess.copy(file.getValue(), targetDirectory + "/" + file.getKey());
+            }
+            fileAccess.write(targetDirectory + "/Dockerfile", dockerfile);
+            return;
+        }
+        fileAccess.writeBinary(targetDirectory + format.getExtension(), out -> {
+            try (BuildContextArchive archive = new BuildContextArchive(out, format == BuildContextFormat.TAR_GZ)) {
+                for (Map.Entry<String, String> file : contextFiles.entrySet()) {
+                    Path source = new File(fileAccess.getSourceDirectory(), file.getValue()).toPath();
+                    archive.add(file.getKey(), source);
+                }
+                archive.add("Dockerfile", (dockerfile + Consts.NL).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private void addRun(DockerfileBuilder target, String filename, FileMapping mapping, Collection<String> env) {
+        CacheMount[] mounts = getCacheMounts(mapping);
+        if (mounts.length > 0) {
+            builder.syntax(DockerfileBuilder.DEFAULT_SYNTAX);
+        }
+        if (Arrays.asList(mounts).contains(CacheMount.APT) && aptCacheEnabled.add(target)) {
+            target.run(KEEP_APT_CACHE, Collections.emptyList());
+        }
+        target.run("./" + filename, env, mounts);
+    }
+
+    /**
+     * Determines the package caches used by the script of the given operation.
+     */
+    private CacheMount[] getCacheMounts(FileMapping mapping) {
+        String script;
+        try {
+            script = fileAccess.readToString(mapping.getArtifact().getValue());
+        } catch (IOException e) {
+            return new CacheMount[0];
+        }
+        List<CacheMount> mounts = new ArrayList<>();
+        if (APT.matcher(script).find()) {
+            mounts.add(CacheMount.APT);
+            mounts.add(CacheMount.APT_LISTS);
+        }
+        if (MAVEN.matcher(script).find()) {
+            mounts.add(CacheMount.MAVEN);
+        }
+        if (NPM.matcher(script).find()) {
+            mounts.add(CacheMount.NPM);
+        }
+        return mounts.toArray(new CacheMount[0]);
+    }
+
+    private Optional<String> getBuildOutput(FileMapping mapping) {
+        if (!DefaultKeys.CREATE.equals(mapping.getOperation().getName())) {
+            return Optional.empty();
+        }
+        return mapping.getComponent().getProperty(BUILD_OUTPUT).map(Property::getValue);
+    }
+
+    /**
+     * @return The components of the stack not contained in its shared base image
+     */
+    private List<RootComponent> getOwnComponents() {
+        List<RootComponent> components = stack.getComponents();
+        Container sharedBase = stack.getSharedBase();
+        return sharedBase != null ? components.subList(sharedBase.getComponents().size(), components.size()) : components;
+    }
+
+    private List<FileMapping> getOwn(List<FileMapping> mappings) {
+        List<RootComponent> components = getOwnComponents();
+        return mappings.stream()
+                .filter(mapping -> components.contains(mapping.getComponent()))
+                .collect(Collectors.toList());
+    }
+
+    private int indexOf(FileMapping mapping) {
+        return stack.getComponents().indexOf(mapping.getComponent());
+    }
+
+    /**
+     * The operations of a component might use the environment variables of the component itself and of all
+     * components it is hosted on.
+     */
+    private Map<String, String> getRequiredEnvVars(RootComponent component) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (RootComponent current : stack.getComponents()) {
+            result.putAll(envVars.getOrDefault(current, Collections.emptyMap()));
+            if (current.equals(component)) {
+                break;
+            }
+        }
+        return result;
+    }
+
     private String determineFilename(Artifact artifact) {
         String name = artifact.getValue();
         if (name.contains("/")) {
@@ -93,16 +393,19 @@ public class DockerfileBuildingVisitor implements ComponentVisitor {
     }
 
     private void collectEnvVars(RootComponent component) {
-        String[] blacklist = {"key_name", "public_key"};
         component.getProperties().values().stream()
-                .filter(p -> !Arrays.asList(blacklist).contains(p.getName()))
+                .filter(p -> !ENV_BLACKLIST.contains(p.getName()))
                 .forEach(p -> {
                     String name = (component.getNormalizedName() + "_" + p.getNormalizedName()).toUpperCase();
-                    builder.env(name, p.getValue());
+                    addEnvVar(component, name, p.getValue());
                     stack.addEnvVar(name, p.getValue());
                 });
     }
 
+    private void addEnvVar(RootComponent component, String name, String value) {
+        envVars.computeIfAbsent(component, k -> new LinkedHashMap<>()).put(name, value);
+    }
+
     private void collectLifecycleOperation(RootComponent component, Operation operation, boolean isStartOperation) {
         for (Artifact artifact : operation.getArtifacts()) {
             FileMapping mapping = new FileMapping(component, operation, artifact);
@@ -140,16 +443,16 @@ public class DockerfileBuildingVisitor implements ComponentVisitor {
     @Override
     public void visit(MysqlDatabase component) {
         visit((RootComponent) component);
-        builder.env("MYSQL_DATABASE", component.getSchemaName());
-        component.getUser().ifPresent(value -> builder.env("MYSQL_USER", value));
-        component.getPassword().ifPresent(value -> builder.env("MYSQL_PASSWORD", value));
-        builder.env("MYSQL_ALLOW_EMPTY_PASSWORD", "yes");
+        addEnvVar(component, "MYSQL_DATABASE", component.getSchemaName());
+        component.getUser().ifPresent(value -> addEnvVar(component, "MYSQL_USER", value));
+        component.getPassword().ifPresent(value -> addEnvVar(component, "MYSQL_PASSWORD", value));
+        addEnvVar(component, "MYSQL_ALLOW_EMPTY_PASSWORD", "yes");
     }
 
     @Override
     public void visit(MysqlDbms component) {
         visit((RootComponent) component);
-        component.getRootPassword().ifPresent(value -> builder.env("MYSQL_ROOT_PASSWORD", value));
+        component.getRootPassword().ifPresent(value -> addEnvVar(component, "MYSQL_ROOT_PASSWORD", value));
     }
 
     @Override
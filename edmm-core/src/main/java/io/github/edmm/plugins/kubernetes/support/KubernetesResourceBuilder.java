@@ -6,14 +6,17 @@ import java.util.Map;
 import java.util.Set;
 
 import io.github.edmm.core.plugin.PluginFileAccess;
-import io.github.edmm.core.plugin.TopologyGraphHelper;
+import io.github.edmm.core.plugin.Serializer;
 import io.github.edmm.core.transformation.TransformationException;
 import io.github.edmm.docker.Container;
 import io.github.edmm.docker.DependencyGraph;
-import io.github.edmm.model.relation.ConnectsTo;
+import io.github.edmm.plugins.kubernetes.model.AutoscalerResource;
 import io.github.edmm.plugins.kubernetes.model.DeploymentResource;
+import io.github.edmm.plugins.kubernetes.model.DisruptionBudgetResource;
 import io.github.edmm.plugins.kubernetes.model.KubernetesResource;
+import io.github.edmm.plugins.kubernetes.model.ResourceSettings;
 import io.github.edmm.plugins.kubernetes.model.ServiceResource;
+import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,27 +26,48 @@ public class KubernetesResourceBuilder {
 
     private final List<KubernetesResource> resources = new ArrayList<>();
 
+    @Getter
     private final Container stack;
+    @Getter
+    private final ResourceSettings settings;
     private final DependencyGraph dependencyGraph;
     private final PluginFileAccess fileAccess;
 
+    /**
+     * @throws TransformationException if the resource settings of the stack are invalid, see {@link ResourceSettings}
+     */
     public KubernetesResourceBuilder(Container stack, DependencyGraph dependencyGraph, PluginFileAccess fileAccess) {
         this.stack = stack;
+        this.settings = ResourceSettings.of(stack);
         this.dependencyGraph = dependencyGraph;
         this.fileAccess = fileAccess;
     }
 
     public void populateResources() {
         resolveEnvVars();
-        resources.add(new DeploymentResource(stack));
+        writeResources();
+    }
+
+    /**
+     * Writes the resource files of the stack, requires {@link #resolveEnvVars()}.
+     */
+    public void writeResources() {
+        resources.clear();
+        resources.add(new DeploymentResource(stack, settings));
         if (stack.getPorts().size() > 0) {
             resources.add(new ServiceResource(stack));
         }
+        if (settings.isAutoscaled()) {
+            resources.add(new AutoscalerResource(stack, settings));
+        }
+        if (settings.isReplicated()) {
+            resources.add(new DisruptionBudgetResource(stack));
+        }
         resources.forEach(KubernetesResource::build);
         try {
             String targetDirectory = stack.getName();
             for (KubernetesResource resource : resources) {
-                fileAccess.append(targetDirectory + "/" + resource.getName() + ".yaml", resource.toYaml());
+                Serializer.YAML.write(fileAccess, targetDirectory + "/" + resource.getName() + ".yaml", resource.getResource());
             }
         } catch (Exception e) {
             logger.error("Failed to create Kubernetes resource files for stack '{}'", stack.getName(), e);
@@ -51,8 +75,11 @@ public class KubernetesResourceBuilder {
         }
     }
 
-    private void resolveEnvVars() {
-        Set<Container> targetStacks = TopologyGraphHelper.getTargetComponents(dependencyGraph, stack, ConnectsTo.class);
+    /**
+     * Adds the environment variables of all stacks the stack depends on to the stack.
+     */
+    public void resolveEnvVars() {
+        Set<Container> targetStacks = dependencyGraph.getTargetStacks(stack);
         for (Container target : targetStacks) {
             for (Map.Entry<String, String> envVar : target.getEnvVars().entrySet()) {
                 stack.addEnvVar(envVar.getKey(), envVar.getValue());
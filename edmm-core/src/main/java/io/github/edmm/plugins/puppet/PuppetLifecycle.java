@@ -28,7 +28,7 @@ public class PuppetLifecycle extends AbstractLifecycle {
     public void transform() {
         LOGGER.info("Begin transformation to Puppet...");
         PuppetTransformer transformer = new PuppetTransformer(context);
-        transformer.populateManifest();
+        visit(context, transformer, transformer::populateManifest);
         LOGGER.info("Transformation to Puppet successful");
     }
 
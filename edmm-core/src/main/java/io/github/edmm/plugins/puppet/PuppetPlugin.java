@@ -1,6 +1,7 @@
 package io.github.edmm.plugins.puppet;
 
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.TemplateHelper;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.TransformationContext;
 
@@ -12,6 +13,11 @@ public class PuppetPlugin extends Plugin<PuppetLifecycle> {
         super(PUPPET);
     }
 
+    @Override
+    protected void init() {
+        TemplateHelper.preload(PuppetPlugin.class, "/plugins/puppet", "component_template.pp", "task_template.pp");
+    }
+
     @Override
     public PuppetLifecycle getLifecycle(TransformationContext context) {
         return new PuppetLifecycle(context);
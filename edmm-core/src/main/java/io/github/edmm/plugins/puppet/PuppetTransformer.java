@@ -12,6 +12,7 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import io.github.edmm.core.plugin.PluginFileAccess;
 import io.github.edmm.core.plugin.TemplateHelper;
+import io.github.edmm.core.plugin.TopologicalOrder;
 import io.github.edmm.core.transformation.TransformationContext;
 import io.github.edmm.model.Artifact;
 import io.github.edmm.model.Operation;
@@ -21,8 +22,6 @@ import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.relation.RootRelation;
 import io.github.edmm.plugins.puppet.model.Task;
 import org.jgrapht.Graph;
-import org.jgrapht.alg.CycleDetector;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,39 +47,33 @@ public class PuppetTransformer {
         PluginFileAccess fileAccess = context.getFileAccess();
 
         try {
-            CycleDetector<RootComponent, RootRelation> cycleDetector = new CycleDetector<>(context.getModel().getTopology());
-            if (cycleDetector.detectCycles()) {
-                throw new RuntimeException("The given topology is not acyclic");
-            } else {
-                context.getModel().findComponentStacks().forEach(stack -> {
-                    try {
-                        // TODO check if compute node is present in the stack
-                        String stackName = stack.vertexSet()
-                                .stream()
-                                .filter(v -> v instanceof Compute)
-                                .findFirst()
-                                .get()
-                                .getNormalizedName();
-                        // sort the reversed topology topologically to have a global order
-                        TopologicalOrderIterator<RootComponent, RootRelation> iterator = new TopologicalOrderIterator<>(stack);
-
-                        LOGGER.info("Generate a repository structure for application stack: " + stackName);
-
-                        while (iterator.hasNext()) {
-                            RootComponent component = iterator.next();
-                            LOGGER.info("Generate a cookbook for component " + component.getName());
-                            if (component instanceof Compute) {
-                                LOGGER.info("ignore generating a module for compute component: " + component.getName());
-                            } else {
-                                LOGGER.info("generate task modules for component: " + component.getName());
-                                generateComponentModule(component);
-                            }
+            TopologicalOrder order = context.getModel().getTopologicalOrder();
+            order.requireAcyclic();
+            context.getModel().findComponentStacks().forEach(stack -> {
+                try {
+                    // TODO check if compute node is present in the stack
+                    String stackName = stack.vertexSet()
+                            .stream()
+                            .filter(v -> v instanceof Compute)
+                            .findFirst()
+                            .get()
+                            .getNormalizedName();
+                    LOGGER.info("Generate a repository structure for application stack: " + stackName);
+
+                    // restrict the global topological order to the components of this stack
+                    for (RootComponent component : order.getOrder(stack.vertexSet())) {
+                        LOGGER.info("Generate a cookbook for component " + component.getName());
+                        if (component instanceof Compute) {
+                            LOGGER.info("ignore generating a module for compute component: " + component.getName());
+                        } else {
+                            LOGGER.info("generate task modules for component: " + component.getName());
+                            generateComponentModule(component);
                         }
-                    } catch (IOException e) {
-                        LOGGER.error("Failed to generate stacks for Chef: {}", e.getMessage(), e);
                     }
-                });
-            }
+                } catch (IOException e) {
+                    LOGGER.error("Failed to generate stacks for Chef: {}", e.getMessage(), e);
+                }
+            });
         } catch (Exception e) {
             LOGGER.error("Failed to write Chef cookbooks : {}", e.getMessage(), e);
         }
@@ -139,13 +132,13 @@ public class PuppetTransformer {
                 try {
                     context.getFileAccess().copy(a.getValue(), componentFilesFolder.resolve(p.getFileName().toString()).toString());
 
-                    context.getFileAccess().append(taskClassPath.toString(), TemplateHelper.toString(taskTemplate, taskData));
+                    TemplateHelper.write(context.getFileAccess(), taskClassPath.toString(), taskTemplate, taskData);
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
             }
         });
         componentData.put("tasks", tasks);
-        context.getFileAccess().append(componentClassPath.toString(), TemplateHelper.toString(componentTemplate, componentData));
+        TemplateHelper.write(context.getFileAccess(), componentClassPath.toString(), componentTemplate, componentData);
     }
 }
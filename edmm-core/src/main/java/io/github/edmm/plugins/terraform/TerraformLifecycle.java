@@ -24,11 +24,13 @@ public class TerraformLifecycle extends AbstractLifecycle {
     public void transform() {
         logger.info("Begin transformation to Terraform...");
         TerraformVisitor visitor = new TerraformAwsVisitor(context);
-        // Visit compute components first
-        VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
-        // ... then all others
-        VisitorHelper.visit(context.getModel().getComponents(), visitor);
-        VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        visit(context, visitor, () -> {
+            // Visit compute components first
+            VisitorHelper.visit(context.getModel().getComponents(), visitor, component -> component instanceof Compute);
+            // ... then all others
+            VisitorHelper.visit(context.getModel().getComponents(), visitor);
+            VisitorHelper.visit(context.getModel().getRelations(), visitor);
+        });
         visitor.populateTerraformFile();
         logger.info("Transformation to Terraform successful");
     }
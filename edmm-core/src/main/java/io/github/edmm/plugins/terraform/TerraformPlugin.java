@@ -1,6 +1,7 @@
 package io.github.edmm.plugins.terraform;
 
 import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.TemplateHelper;
 import io.github.edmm.core.transformation.Platform;
 import io.github.edmm.core.transformation.TransformationContext;
 
@@ -12,6 +13,11 @@ public class TerraformPlugin extends Plugin<TerraformLifecycle> {
         super(TERRAFORM);
     }
 
+    @Override
+    protected void init() {
+        TemplateHelper.preload(TerraformPlugin.class, "/plugins/terraform", "aws.tf");
+    }
+
     @Override
     public TerraformLifecycle getLifecycle(TransformationContext context) {
         return new TerraformLifecycle(context);
@@ -2,6 +2,7 @@ package io.github.edmm.plugins.terraform;
 
 import freemarker.template.Configuration;
 import io.github.edmm.core.plugin.TemplateHelper;
+import io.github.edmm.core.plugin.TopologyIndex;
 import io.github.edmm.core.transformation.TransformationContext;
 import io.github.edmm.model.component.RootComponent;
 import io.github.edmm.model.relation.RootRelation;
@@ -14,10 +15,12 @@ public abstract class TerraformVisitor implements ComponentVisitor, RelationVisi
     protected final TransformationContext context;
     protected final Configuration cfg = TemplateHelper.forClasspath(TerraformPlugin.class, "/plugins/terraform");
     protected final Graph<RootComponent, RootRelation> graph;
+    protected final TopologyIndex<RootComponent, RootRelation> index;
 
     public TerraformVisitor(TransformationContext context) {
         this.context = context;
         this.graph = context.getTopologyGraph();
+        this.index = context.getTopologyIndex();
     }
 
     public abstract void populateTerraformFile();
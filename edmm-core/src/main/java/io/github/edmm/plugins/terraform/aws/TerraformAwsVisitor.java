@@ -55,7 +55,7 @@ public class TerraformAwsVisitor extends TerraformVisitor {
         Map<String, Object> data = new HashMap<>();
         data.put("instances", computeInstances);
         try {
-            fileAccess.append(FILE_NAME, TemplateHelper.toString(cfg, "aws.tf", data));
+            TemplateHelper.write(fileAccess, FILE_NAME, cfg, "aws.tf", data);
         } catch (IOException e) {
             logger.error("Failed to write Terraform file", e);
             throw new TransformationException(e);
@@ -106,8 +106,8 @@ public class TerraformAwsVisitor extends TerraformVisitor {
     public void visit(ConnectsTo relation) {
         RootComponent source = graph.getEdgeSource(relation);
         RootComponent target = graph.getEdgeTarget(relation);
-        Optional<Compute> optionalSourceCompute = TopologyGraphHelper.resolveHostingComputeComponent(graph, source);
-        Optional<Compute> optionalTargetCompute = TopologyGraphHelper.resolveHostingComputeComponent(graph, target);
+        Optional<Compute> optionalSourceCompute = TopologyGraphHelper.resolveHostingComputeComponent(index, source);
+        Optional<Compute> optionalTargetCompute = TopologyGraphHelper.resolveHostingComputeComponent(index, target);
         if (optionalSourceCompute.isPresent() && optionalTargetCompute.isPresent()) {
             Ec2 sourceCompute = computeInstances.get(optionalSourceCompute.get());
             Ec2 targetCompute = computeInstances.get(optionalTargetCompute.get());
@@ -126,7 +126,7 @@ public class TerraformAwsVisitor extends TerraformVisitor {
 
     private void collectIngressPorts(RootComponent component) {
         component.getProperty(PORT).ifPresent(port -> {
-            Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(graph, component);
+            Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(index, component);
             if (optionalCompute.isPresent()) {
                 Compute hostingCompute = optionalCompute.get();
                 computeInstances.get(hostingCompute).addIngressPort(String.valueOf(port));
@@ -135,7 +135,7 @@ public class TerraformAwsVisitor extends TerraformVisitor {
     }
 
     private void collectFileProvisioners(RootComponent component) {
-        Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(graph, component);
+        Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(index, component);
         if (optionalCompute.isPresent()) {
             Compute hostingCompute = optionalCompute.get();
             Ec2 ec2 = computeInstances.get(hostingCompute);
@@ -147,7 +147,7 @@ public class TerraformAwsVisitor extends TerraformVisitor {
     }
 
     private void collectRemoteExecProvisioners(RootComponent component) {
-        Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(graph, component);
+        Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(index, component);
         if (optionalCompute.isPresent()) {
             Compute hostingCompute = optionalCompute.get();
             Ec2 ec2 = computeInstances.get(hostingCompute);
@@ -157,7 +157,7 @@ public class TerraformAwsVisitor extends TerraformVisitor {
     }
 
     private void collectEnvVars(RootComponent component) {
-        Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(graph, component);
+        Optional<Compute> optionalCompute = TopologyGraphHelper.resolveHostingComputeComponent(index, component);
         if (optionalCompute.isPresent()) {
             Compute hostingCompute = optionalCompute.get();
             Ec2 ec2 = computeInstances.get(hostingCompute);
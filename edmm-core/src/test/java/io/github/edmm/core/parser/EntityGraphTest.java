@@ -1,5 +1,6 @@
 package io.github.edmm.core.parser;
 
+import io.github.edmm.model.support.Attribute;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -20,4 +21,24 @@ public class EntityGraphTest {
         Assert.assertEquals("edm_1_0", ((ScalarEntity) graph.getEntity(EntityGraph.ROOT.extend("version"))
                 .orElseThrow(IllegalStateException::new)).getValue());
     }
+
+    @Test
+    public void testCopyIsIsolated() {
+        EntityGraph copy = graph.copy();
+        Assert.assertEquals(graph.vertexSet().size(), copy.vertexSet().size());
+        Assert.assertEquals(graph.edgeSet().size(), copy.edgeSet().size());
+        EntityId ubuntuId = EntityGraph.COMPONENTS.extend("ubuntu");
+        MappingEntity ubuntu = (MappingEntity) copy.getEntity(ubuntuId).orElseThrow(IllegalStateException::new);
+        Assert.assertSame(copy, ubuntu.getGraph());
+        ubuntu.setValue(new Attribute<>("description", String.class), "changed");
+        ubuntu.setValue(new Attribute<>("added", String.class), "added");
+        Assert.assertEquals("changed", value(copy, ubuntuId.extend("description")));
+        Assert.assertEquals("ubuntu", value(graph, ubuntuId.extend("description")));
+        Assert.assertFalse(graph.getEntity(ubuntuId.extend("added")).isPresent());
+        Assert.assertEquals(graph.vertexSet().size() + 1, copy.vertexSet().size());
+    }
+
+    private static String value(EntityGraph graph, EntityId id) {
+        return ((ScalarEntity) graph.getEntity(id).orElseThrow(IllegalStateException::new)).getValue();
+    }
 }
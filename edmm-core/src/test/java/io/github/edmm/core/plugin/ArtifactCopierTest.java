@@ -0,0 +1,120 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ArtifactCopierTest {
+
+    private Path workingDirectory;
+    private Path source;
+
+    @Before
+    public void init() throws Exception {
+        workingDirectory = Files.createTempDirectory("edmm-");
+        source = workingDirectory.resolve("source");
+        Files.createDirectories(source.resolve("scripts"));
+        Files.write(source.resolve("scripts/install.sh"), "echo install".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("scripts/start.sh"), "echo start".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCopySkipsExistingCopies() throws Exception {
+        ArtifactCopier copier = new ArtifactCopier(ArtifactCopier.Mode.COPY);
+        Path target = workingDirectory.resolve("target");
+        copier.copy(source.resolve("scripts"), target.resolve("scripts"));
+        copier.copy(source.resolve("scripts/install.sh"), target.resolve("scripts/install.sh"));
+        copier.copy(source.resolve("scripts/install.sh"), target.resolve("other/install.sh"));
+        assertEquals(3, copier.getCopiedFiles());
+        assertEquals(1, copier.getSkippedFiles());
+        assertEquals("echo install", read(target.resolve("other/install.sh")));
+        assertEquals("echo start", read(target.resolve("scripts/start.sh")));
+    }
+
+    @Test
+    public void testModifiedCopiesAreNotReused() throws Exception {
+        ArtifactCopier copier = new ArtifactCopier(ArtifactCopier.Mode.COPY);
+        Path target = workingDirectory.resolve("target");
+        copier.copy(source.resolve("scripts/install.sh"), target.resolve("a/install.sh"));
+        Files.write(target.resolve("a/install.sh"), "modified by plugin".getBytes(StandardCharsets.UTF_8));
+        copier.copy(source.resolve("scripts/install.sh"), target.resolve("b/install.sh"));
+        assertEquals(2, copier.getCopiedFiles());
+        assertEquals("echo install", read(target.resolve("b/install.sh")));
+    }
+
+    @Test
+    public void testUnchangedCopiesAreKept() throws Exception {
+        Path target = workingDirectory.resolve("target/install.sh");
+        new ArtifactCopier(ArtifactCopier.Mode.COPY).copy(source.resolve("scripts/install.sh"), target);
+        ArtifactCopier copier = new ArtifactCopier(ArtifactCopier.Mode.COPY);
+        copier.copy(source.resolve("scripts/install.sh"), target);
+        assertEquals(0, copier.getCopiedFiles());
+        assertEquals(1, copier.getSkippedFiles());
+        Files.write(source.resolve("scripts/install.sh"), "echo install --force".getBytes(StandardCharsets.UTF_8));
+        new ArtifactCopier(ArtifactCopier.Mode.COPY).copy(source.resolve("scripts/install.sh"), target);
+        assertEquals("echo install --force", read(target));
+    }
+
+    @Test
+    public void testHardLinkDuplicates() throws Exception {
+        ArtifactCopier copier = new ArtifactCopier(ArtifactCopier.Mode.HARD_LINK);
+        Path target = workingDirectory.resolve("target");
+        copier.copy(source.resolve("scripts/install.sh"), target.resolve("a/install.sh"));
+        copier.copy(source.resolve("scripts/install.sh"), target.resolve("b/install.sh"));
+        assertEquals(1, copier.getCopiedFiles());
+        assertEquals(1, copier.getLinkedFiles());
+        assertTrue(Files.isSameFile(target.resolve("a/install.sh"), target.resolve("b/install.sh")));
+        assertEquals("echo install", read(target.resolve("b/install.sh")));
+    }
+
+    @Test
+    public void testConcurrentCopies() throws Exception {
+        ArtifactCopier copier = new ArtifactCopier(ArtifactCopier.Mode.HARD_LINK);
+        Path target = workingDirectory.resolve("target");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                Path destination = target.resolve("copy-" + (i % 8));
+                futures.add(executor.submit(() -> {
+                    copier.copy(source.resolve("scripts"), destination);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(32, copier.getCopiedFiles() + copier.getLinkedFiles() + copier.getSkippedFiles());
+        assertEquals(16, copier.getSkippedFiles());
+        for (int i = 0; i < 8; i++) {
+            assertEquals("echo install", read(target.resolve("copy-" + i + "/install.sh")));
+            assertEquals("echo start", read(target.resolve("copy-" + i + "/start.sh")));
+        }
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(workingDirectory.toFile());
+    }
+
+    private static String read(Path file) throws Exception {
+        return FileUtils.readFileToString(new File(file.toString()), StandardCharsets.UTF_8);
+    }
+}
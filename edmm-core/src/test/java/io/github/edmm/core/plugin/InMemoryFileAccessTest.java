@@ -0,0 +1,161 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import io.github.edmm.core.transformation.metrics.DefaultMetrics;
+import io.github.edmm.core.transformation.metrics.Metrics;
+import io.github.edmm.utils.Consts;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class InMemoryFileAccessTest {
+
+    private File workingDirectory;
+    private File targetDirectory;
+
+    @Before
+    public void init() throws Exception {
+        workingDirectory = Files.createTempDirectory("edmm-").toFile();
+        targetDirectory = new File(workingDirectory, "target");
+    }
+
+    @Test
+    public void testHandOff() throws Exception {
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.NONE);
+        fileAccess.append("/a/file.txt", "data");
+        fileAccess.append("b.txt", "data");
+        fileAccess.delete("b.txt");
+        fileAccess.close();
+        Map<String, byte[]> files = fileAccess.getFiles();
+        assertEquals(1, files.size());
+        assertArrayEquals(("data" + Consts.NL).getBytes(StandardCharsets.UTF_8), files.get("a/file.txt"));
+        assertFalse(targetDirectory.exists());
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testDeleteKeptDirectory() throws Exception {
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.INCREMENTAL);
+        fileAccess.keep("a");
+        assertTrue(fileAccess.getAbsolutePath("a/file.txt").endsWith("file.txt"));
+        fileAccess.delete("a");
+        fileAccess.getAbsolutePath("a");
+    }
+
+    @Test
+    public void testCommitReplacesTarget() throws Exception {
+        FileUtils.writeStringToFile(new File(targetDirectory, "stale.txt"), "stale", StandardCharsets.UTF_8);
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.ATOMIC);
+        fileAccess.append("file.txt", "data");
+        assertFalse(new File(targetDirectory, "file.txt").exists());
+        fileAccess.close();
+        assertTrue(new File(targetDirectory, "file.txt").isFile());
+        assertFalse(new File(targetDirectory, "stale.txt").exists());
+        assertEquals(1, workingDirectory.list().length);
+    }
+
+    @Test
+    public void testAbortKeepsTarget() throws Exception {
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.ATOMIC);
+        fileAccess.append("file.txt", "data");
+        fileAccess.abort();
+        assertFalse(targetDirectory.exists());
+        assertTrue(fileAccess.getFiles().isEmpty());
+    }
+
+    @Test
+    public void testIncrementalCommitSkipsUnchangedFiles() throws Exception {
+        File artifact = new File(workingDirectory, "install.sh");
+        FileUtils.writeStringToFile(artifact, "echo install", StandardCharsets.UTF_8);
+        transformIncremental("data", "obsolete.txt");
+        File file = new File(targetDirectory, "file.txt");
+        File copy = new File(targetDirectory, "scripts/install.sh");
+        assertTrue(new File(targetDirectory, "obsolete.txt").isFile());
+        assertTrue(new File(targetDirectory, BuildCache.FILE_NAME).isFile());
+        long fileModified = file.lastModified();
+        // Rewritten files would get a newer modification time
+        Thread.sleep(20);
+        InMemoryFileAccess fileAccess = transformIncremental("data", null);
+        assertEquals(fileModified, file.lastModified());
+        assertEquals(0, fileAccess.getArtifactCopier().getCopiedFiles());
+        assertFalse(new File(targetDirectory, "obsolete.txt").exists());
+        transformIncremental("changed", null);
+        assertEquals("changed" + Consts.NL, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        assertTrue(copy.isFile());
+    }
+
+    @Test
+    public void testIncrementalCommitKeepsFilesOutsideOfTarget() throws Exception {
+        File outside = new File(workingDirectory, "outside.txt");
+        FileUtils.writeStringToFile(outside, "outside", StandardCharsets.UTF_8);
+        File stale = new File(targetDirectory, "stale.txt");
+        FileUtils.writeStringToFile(stale, "stale", StandardCharsets.UTF_8);
+        // A corrupted or crafted cache must not delete anything outside of the target directory
+        FileUtils.writeStringToFile(new File(targetDirectory, BuildCache.FILE_NAME),
+                "{\"../outside.txt\": {\"hash\": \"0\"}, \"stale.txt\": {\"hash\": \"0\"}}", StandardCharsets.UTF_8);
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.INCREMENTAL);
+        fileAccess.append("file.txt", "data");
+        fileAccess.close();
+        assertTrue(outside.isFile());
+        assertFalse(stale.exists());
+    }
+
+    @Test
+    public void testIncrementalGenerationSkipsUpToDateOutputs() throws Exception {
+        FileUtils.writeStringToFile(new File(workingDirectory, "install.sh"), "echo install", StandardCharsets.UTF_8);
+        InMemoryFileAccess fileAccess = generateIncremental("v1", "1", "1");
+        assertEquals(2, fileAccess.getFiles().size());
+        assertTrue(new File(targetDirectory, OutputIndex.FILE_NAME).isFile());
+        // Unchanged inputs, the generator of "a" is not run and its output is kept
+        fileAccess = generateIncremental("v1", "1", "2");
+        assertEquals(1L, (long) fileAccess.getMetrics().getCounters().get(Metrics.OUTPUTS_SKIPPED));
+        assertEquals(1, fileAccess.getFiles().size());
+        assertTrue(new File(targetDirectory, "a/install.sh").isFile());
+        assertEquals("2" + Consts.NL, FileUtils.readFileToString(new File(targetDirectory, "b.txt"), StandardCharsets.UTF_8));
+        // Outputs of another version are never reused
+        fileAccess = generateIncremental("v2", "1", "2");
+        assertEquals(2, fileAccess.getFiles().size());
+        // Outputs no longer generated are removed
+        fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.INCREMENTAL);
+        fileAccess.setOutputIndex(OutputIndex.load(targetDirectory.toPath(), "v2"));
+        fileAccess.close();
+        assertFalse(new File(targetDirectory, "a/install.sh").exists());
+        assertFalse(new File(targetDirectory, "b.txt").exists());
+    }
+
+    private InMemoryFileAccess generateIncremental(String version, String inputsA, String inputsB) throws Exception {
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.INCREMENTAL);
+        fileAccess.setMetrics(new DefaultMetrics());
+        fileAccess.setOutputIndex(OutputIndex.load(targetDirectory.toPath(), version));
+        fileAccess.generate("a", inputsA, () -> fileAccess.copy("install.sh", "a/install.sh"));
+        fileAccess.generate("b", inputsB, () -> fileAccess.append("b.txt", inputsB));
+        fileAccess.close();
+        return fileAccess;
+    }
+
+    private InMemoryFileAccess transformIncremental(String data, String additionalFile) throws Exception {
+        InMemoryFileAccess fileAccess = new InMemoryFileAccess(workingDirectory, targetDirectory, InMemoryFileAccess.Commit.INCREMENTAL);
+        fileAccess.append("file.txt", data);
+        fileAccess.copy("install.sh", "scripts/install.sh");
+        if (additionalFile != null) {
+            fileAccess.append(additionalFile, data);
+        }
+        fileAccess.close();
+        return fileAccess;
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(workingDirectory);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.github.edmm.core.transformation.Platform;
+import io.github.edmm.core.transformation.Transformation;
+import io.github.edmm.core.transformation.TransformationContext;
+import io.github.edmm.model.DeploymentModel;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LifecyclePhaseTest {
+
+    private File targetDirectory;
+    private TransformationContext context;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/scenario_iaas.yml");
+        DeploymentModel model = DeploymentModel.of(resource.getFile());
+        targetDirectory = Files.createTempDirectory("edmm-").toFile();
+        context = new TransformationContext(new Transformation(model, Platform.NOOP), targetDirectory, targetDirectory);
+    }
+
+    @Test
+    public void testIndependentPhasesRunConcurrently() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        TestPlugin plugin = new TestPlugin(latch, false);
+        plugin.transform(context);
+        for (LifecyclePhase phase : plugin.lifecycle.getLifecyclePhases()) {
+            assertEquals(phase.getName(), LifecyclePhase.State.DONE, phase.getState());
+        }
+    }
+
+    @Test
+    public void testFailureSkipsSuccessorsOnly() {
+        TestPlugin plugin = new TestPlugin(new CountDownLatch(0), true);
+        try {
+            plugin.transform(context);
+            fail();
+        } catch (Exception e) {
+            assertEquals("copy failed", e.getMessage());
+        }
+        assertEquals(LifecyclePhase.State.FAILED, phase(plugin, "copy").getState());
+        assertEquals(LifecyclePhase.State.DONE, phase(plugin, "render").getState());
+        assertEquals(LifecyclePhase.State.SKIPPED, phase(plugin, AbstractLifecycle.TRANSFORMATION).getState());
+        assertEquals(LifecyclePhase.State.SKIPPED, phase(plugin, AbstractLifecycle.CLEANUP).getState());
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(targetDirectory);
+    }
+
+    private static LifecyclePhase phase(TestPlugin plugin, String name) {
+        return AbstractLifecycle.findPhase(plugin.lifecycle.getLifecyclePhases(), name);
+    }
+
+    private static class TestPlugin extends Plugin<TestLifecycle> {
+
+        private final CountDownLatch latch;
+        private final boolean failing;
+        private TestLifecycle lifecycle;
+
+        TestPlugin(CountDownLatch latch, boolean failing) {
+            super(Platform.NOOP);
+            this.latch = latch;
+            this.failing = failing;
+        }
+
+        @Override
+        public TestLifecycle getLifecycle(TransformationContext context) {
+            if (lifecycle == null) {
+                lifecycle = new TestLifecycle(latch, failing);
+            }
+            return lifecycle;
+        }
+    }
+
+    private static class TestLifecycle extends AbstractLifecycle {
+
+        private final CountDownLatch latch;
+        private final boolean failing;
+
+        TestLifecycle(CountDownLatch latch, boolean failing) {
+            this.latch = latch;
+            this.failing = failing;
+        }
+
+        @Override
+        protected List<LifecyclePhase> populatePhases() {
+            List<LifecyclePhase> phases = super.populatePhases();
+            LifecyclePhase prepare = findPhase(phases, PREPARE);
+            // Both phases only complete if they are executed concurrently
+            LifecyclePhase<TestLifecycle> copy = new LifecyclePhase<TestLifecycle>("copy", this, e -> {
+                e.await();
+                if (e.failing) {
+                    throw new IllegalStateException("copy failed");
+                }
+            }).dependsOn(prepare);
+            LifecyclePhase<TestLifecycle> render = new LifecyclePhase<TestLifecycle>("render", this, TestLifecycle::await)
+                    .dependsOn(prepare);
+            findPhase(phases, TRANSFORMATION).dependsOn(copy, render);
+            phases.add(phases.indexOf(prepare) + 1, copy);
+            phases.add(phases.indexOf(copy) + 1, render);
+            return phases;
+        }
+
+        private void await() throws InterruptedException {
+            latch.countDown();
+            assertTrue("Phases have not been executed concurrently", latch.await(10, TimeUnit.SECONDS));
+        }
+
+        @Override
+        public void transform() {
+            // noop
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.edmm.core.plugin;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelHelperTest {
+
+    private final List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6);
+
+    @Test
+    public void testSequential() {
+        Thread caller = Thread.currentThread();
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        ParallelHelper.forEach(items, 1, item -> {
+            assertEquals(caller, Thread.currentThread());
+            processed.add(item);
+        });
+        assertEquals(items.size(), processed.size());
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        // Every item waits for the first two items, which only succeeds if they are processed concurrently
+        CountDownLatch latch = new CountDownLatch(2);
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        ParallelHelper.forEach(items, 2, item -> {
+            latch.countDown();
+            try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            processed.add(item);
+        });
+        assertEquals(items.size(), processed.size());
+    }
+
+    @Test
+    public void testFirstFailureInListOrder() {
+        Set<Integer> processed = ConcurrentHashMap.newKeySet();
+        try {
+            ParallelHelper.forEach(items, 3, item -> {
+                processed.add(item);
+                if (item % 2 == 0) {
+                    throw new IllegalArgumentException(String.valueOf(item));
+                }
+            });
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("2", e.getMessage());
+            assertEquals(2, e.getSuppressed().length);
+        }
+        assertEquals(items.size(), processed.size());
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.edmm.core.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import freemarker.template.Template;
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.core.transformation.metrics.DefaultMetrics;
+import io.github.edmm.core.transformation.metrics.Metrics;
+import io.github.edmm.utils.Consts;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PluginFileAccessTest {
+
+    private File targetDirectory;
+    private PluginFileAccess fileAccess;
+
+    @Before
+    public void init() throws Exception {
+        targetDirectory = Files.createTempDirectory("edmm-").toFile();
+        fileAccess = new PluginFileAccess(targetDirectory, targetDirectory, 2);
+        fileAccess.setMetrics(new DefaultMetrics());
+    }
+
+    @Test
+    public void testBufferedAppend() throws Exception {
+        fileAccess.append("a/script.sh", "line1");
+        fileAccess.append("a/script.sh", "line2");
+        File file = new File(targetDirectory, "a/script.sh");
+        assertEquals(0, file.length());
+        fileAccess.close();
+        assertEquals("line1" + Consts.NL + "line2" + Consts.NL, read(file));
+    }
+
+    @Test
+    public void testEvictionKeepsContent() throws Exception {
+        fileAccess.append("one", "1");
+        fileAccess.append("two", "2");
+        fileAccess.append("three", "3");
+        // Least recently used writer has been closed
+        assertEquals("1" + Consts.NL, read(new File(targetDirectory, "one")));
+        fileAccess.append("one", "1");
+        fileAccess.close();
+        assertEquals("1" + Consts.NL + "1" + Consts.NL, read(new File(targetDirectory, "one")));
+        assertEquals("3" + Consts.NL, read(new File(targetDirectory, "three")));
+    }
+
+    @Test
+    public void testDeleteReleasesWriters() throws Exception {
+        fileAccess.append("dir/file", "data");
+        assertTrue(fileAccess.delete("dir"));
+        assertFalse(new File(targetDirectory, "dir").exists());
+        fileAccess.close();
+        assertFalse(new File(targetDirectory, "dir/file").exists());
+    }
+
+    @Test
+    public void testStreamedAppend() throws Exception {
+        PluginFileAccess unbuffered = new PluginFileAccess(targetDirectory, targetDirectory);
+        unbuffered.setMetrics(new DefaultMetrics());
+        unbuffered.append("dir/file", writer -> {
+            writer.write("caf\u00e9");
+            writer.write('!');
+        });
+        unbuffered.append("dir/file", "end");
+        assertEquals("caf\u00e9!" + Consts.NL + "end" + Consts.NL, read(new File(targetDirectory, "dir/file")));
+        long expected = ("caf\u00e9!" + Consts.NL + "end" + Consts.NL).getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(expected, (long) unbuffered.getMetrics().getCounters().get(Metrics.BYTES_WRITTEN));
+    }
+
+    @Test
+    public void testWriteSkipsUnchangedFiles() throws Exception {
+        File file = new File(targetDirectory, "dir/file");
+        fileAccess.append("dir/file", "stale");
+        assertTrue(fileAccess.write("dir/file", "data"));
+        assertEquals("data" + Consts.NL, read(file));
+        assertTrue(file.setLastModified(1000));
+        assertFalse(fileAccess.write("dir/file", "data"));
+        assertEquals(1000, file.lastModified());
+        assertEquals(1L, (long) fileAccess.getMetrics().getCounters().get(Metrics.FILES_UNCHANGED));
+        assertTrue(fileAccess.write("dir/file", "changed"));
+        assertEquals("changed" + Consts.NL, read(file));
+        assertEquals(1, new File(targetDirectory, "dir").list().length);
+    }
+
+    @Test
+    public void testConcurrentWritesOfTheSameFile() throws Exception {
+        PluginFileAccess unbuffered = new PluginFileAccess(targetDirectory, targetDirectory);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String data = "data" + i;
+                results.add(executor.submit(() -> unbuffered.write("dir/file", data)));
+            }
+            for (Future<Boolean> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(read(new File(targetDirectory, "dir/file")).startsWith("data"));
+        // No temporary file is left behind
+        assertEquals(1, new File(targetDirectory, "dir").list().length);
+    }
+
+    @Test
+    public void testTemplateErrorsArePropagated() throws Exception {
+        Template template = new Template("broken", "${missing}",
+                TemplateHelper.forClasspath(PluginFileAccessTest.class, "/"));
+        try {
+            TemplateHelper.write(fileAccess, "file", template, Collections.emptyMap());
+            fail();
+        } catch (TransformationException e) {
+            assertEquals("Failed to process template 'broken'", e.getMessage());
+        }
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(targetDirectory);
+    }
+
+    private static String read(File file) throws Exception {
+        return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+    }
+}
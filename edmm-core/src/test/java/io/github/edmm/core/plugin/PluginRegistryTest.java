@@ -0,0 +1,43 @@
+package io.github.edmm.core.plugin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import io.github.edmm.core.plugin.noop.NoopPlugin;
+import io.github.edmm.core.transformation.Platform;
+import io.github.edmm.plugins.kubernetes.KubernetesPlugin;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PluginRegistryTest {
+
+    @Test
+    public void testLoad() {
+        PluginRegistry registry = PluginRegistry.load();
+        assertEquals(10, registry.getPlatforms().size());
+        assertTrue(registry.getPlatforms().stream().map(Platform::getId).collect(Collectors.toSet())
+                .containsAll(Arrays.asList("ansible", "kubernetes", "terraform")));
+        Plugin plugin = registry.findByPlatformId("kubernetes").orElseThrow(IllegalStateException::new);
+        assertTrue(plugin instanceof KubernetesPlugin);
+        assertSame(plugin, registry.findByPlatformId("kubernetes").orElseThrow(IllegalStateException::new));
+        assertFalse(registry.findByPlatformId("unknown").isPresent());
+    }
+
+    @Test
+    public void testOf() {
+        NoopPlugin plugin = new NoopPlugin();
+        PluginRegistry registry = PluginRegistry.of(Collections.singletonList(plugin));
+        assertSame(plugin, registry.findByPlatformId(Platform.NOOP.getId()).orElseThrow(IllegalStateException::new));
+        assertEquals(Collections.singletonList(plugin), registry.getPlugins());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatePlatform() {
+        PluginRegistry.of(Arrays.asList(new NoopPlugin(), new NoopPlugin()));
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.edmm.core.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SerializerTest {
+
+    private final Map<String, Object> value = Collections.singletonMap("name", "db");
+
+    @Test
+    public void testYaml() throws Exception {
+        assertEquals("---\nname: \"db\"\n", Serializer.YAML.toString(value));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Serializer.YAML.write(value, out);
+        assertEquals(Serializer.YAML.toString(value), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTargetIsNotClosed() throws Exception {
+        StringWriter writer = new StringWriter();
+        Serializer.JSON.write(value, writer);
+        writer.write("\n");
+        Serializer.JSON.write(value, writer);
+        String json = Serializer.JSON.toString(value);
+        assertEquals(json + "\n" + json, writer.toString());
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        byte[] json = Serializer.JSON.toString(value).getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(json);
+        assertEquals(value, Serializer.JSON.read(in, Map.class));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        String expected = Serializer.JSON.toString(value);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> Serializer.JSON.toString(value)));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.edmm.core.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import io.github.edmm.plugins.chef.ChefPlugin;
+import io.github.edmm.plugins.puppet.PuppetPlugin;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TemplateHelperTest {
+
+    @Test
+    public void testSharedConfiguration() {
+        Configuration cfg = TemplateHelper.forClasspath(PuppetPlugin.class, "/plugins/puppet");
+        assertSame(cfg, TemplateHelper.forClasspath(PuppetPlugin.class, "/plugins/puppet"));
+        assertNotSame(cfg, TemplateHelper.forClasspath(PuppetPlugin.class, "/plugins/chef"));
+    }
+
+    @Test
+    public void testPreloadedTemplatesAreReused() {
+        TemplateHelper.preload(PuppetPlugin.class, "/plugins/puppet", "task_template.pp");
+        Configuration cfg = TemplateHelper.forClasspath(PuppetPlugin.class, "/plugins/puppet");
+        Template template = TemplateHelper.getTemplate(cfg, "task_template.pp");
+        assertSame(template, TemplateHelper.getTemplate(cfg, "task_template.pp"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPreloadMissingTemplate() {
+        TemplateHelper.preload(PuppetPlugin.class, "/plugins/puppet", "missing.pp");
+    }
+
+    @Test
+    public void testConcurrentRendering() throws Exception {
+        Configuration cfg = TemplateHelper.forClasspath(ChefPlugin.class, "/plugins/chef");
+        String expected = TemplateHelper.toString(cfg, "chefignore", null);
+        assertFalse(expected.isEmpty());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> TemplateHelper.toString(cfg, "chefignore", null)));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.edmm.core.plugin;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.model.DeploymentModel;
+import io.github.edmm.model.component.RootComponent;
+import io.github.edmm.model.relation.RootRelation;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TopologicalOrderTest {
+
+    private DeploymentModel model;
+    private TopologicalOrder order;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/scenario_iaas.yml");
+        model = DeploymentModel.of(resource.getFile());
+        order = model.getTopologicalOrder();
+    }
+
+    @Test
+    public void testLevels() {
+        assertFalse(order.hasCycles());
+        List<List<String>> levels = order.getLevels().stream()
+                .map(level -> level.stream().map(RootComponent::getName).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(
+                Arrays.asList("db_ubuntu", "pet_clinic_ubuntu"),
+                Arrays.asList("dbms", "pet_clinic_tomcat"),
+                Arrays.asList("db"),
+                Arrays.asList("pet_clinic")
+        ), levels);
+        assertEquals(3, order.getLevel(component("pet_clinic")));
+    }
+
+    @Test
+    public void testOrderRespectsRelations() {
+        List<RootComponent> components = order.getOrder();
+        assertEquals(model.getComponents().size(), components.size());
+        for (RootComponent component : components) {
+            for (RootComponent dependency : model.getTopologyIndex().getTransitiveTargets(component, RootRelation.class)) {
+                assertTrue(components.indexOf(dependency) < components.indexOf(component));
+            }
+        }
+    }
+
+    @Test
+    public void testRestrictedOrder() {
+        List<RootComponent> stack = Arrays.asList(component("db"), component("db_ubuntu"), component("dbms"));
+        List<String> names = order.getOrder(stack).stream().map(RootComponent::getName).collect(Collectors.toList());
+        assertEquals(Arrays.asList("db_ubuntu", "dbms", "db"), names);
+    }
+
+    @Test
+    public void testCycleIsReported() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/unit-tests/cycle.yml");
+        TopologicalOrder cyclic = DeploymentModel.of(resource.getFile()).getTopologicalOrder();
+        assertTrue(cyclic.hasCycles());
+        try {
+            cyclic.requireAcyclic();
+            fail();
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage(), e.getMessage().endsWith("cycle involves: a, b"));
+        }
+    }
+
+    private RootComponent component(String name) {
+        return model.getComponent(name).orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.edmm.core.plugin;
+
+import java.util.Set;
+
+import io.github.edmm.model.DeploymentModel;
+import io.github.edmm.model.component.RootComponent;
+import io.github.edmm.model.relation.ConnectsTo;
+import io.github.edmm.model.relation.DependsOn;
+import io.github.edmm.model.relation.HostedOn;
+import io.github.edmm.model.relation.RootRelation;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopologyIndexTest {
+
+    private DeploymentModel model;
+    private TopologyIndex<RootComponent, RootRelation> index;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/scenario_iaas.yml");
+        model = DeploymentModel.of(resource.getFile());
+        index = model.getTopologyIndex();
+    }
+
+    @Test
+    public void testNeighboursByType() {
+        RootComponent petClinic = component("pet_clinic");
+        assertEquals(1, index.getTargets(petClinic, HostedOn.class).size());
+        assertTrue(index.getTargets(petClinic, HostedOn.class).contains(component("pet_clinic_tomcat")));
+        assertEquals(1, index.getTargets(petClinic, ConnectsTo.class).size());
+        assertTrue(index.getTargets(petClinic, ConnectsTo.class).contains(component("db")));
+        // Super types include all specialized relations
+        assertEquals(2, index.getTargets(petClinic, DependsOn.class).size());
+        assertEquals(2, index.getOutgoingEdges(petClinic, RootRelation.class).size());
+        assertEquals(TopologyGraphHelper.getTargetComponents(model.getTopology(), petClinic, DependsOn.class),
+                index.getTargets(petClinic, DependsOn.class));
+    }
+
+    @Test
+    public void testReverseLookup() {
+        Set<RootComponent> sources = index.getSources(component("db"), ConnectsTo.class);
+        assertEquals(1, sources.size());
+        assertTrue(sources.contains(component("pet_clinic")));
+        assertTrue(index.getSources(component("pet_clinic"), RootRelation.class).isEmpty());
+        assertEquals(1, index.getIncomingEdges(component("dbms"), HostedOn.class).size());
+    }
+
+    @Test
+    public void testTransitiveClosure() {
+        Set<RootComponent> hosts = index.getTransitiveTargets(component("pet_clinic"), HostedOn.class);
+        assertEquals(2, hosts.size());
+        assertTrue(hosts.contains(component("pet_clinic_ubuntu")));
+        Set<RootComponent> hosted = index.getTransitiveSources(component("db_ubuntu"), HostedOn.class);
+        assertEquals(2, hosted.size());
+        assertTrue(hosted.contains(component("db")));
+        Set<RootComponent> dependencies = index.getTransitiveTargets(component("pet_clinic"), DependsOn.class);
+        assertEquals(5, dependencies.size());
+    }
+
+    private RootComponent component(String name) {
+        return model.getComponent(name).orElseThrow(IllegalStateException::new);
+    }
+}
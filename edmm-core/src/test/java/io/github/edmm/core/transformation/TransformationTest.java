@@ -0,0 +1,151 @@
+package io.github.edmm.core.transformation;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.github.edmm.core.plugin.AbstractLifecycle;
+import io.github.edmm.core.plugin.LifecyclePhase;
+import io.github.edmm.core.plugin.Plugin;
+import io.github.edmm.core.plugin.noop.NoopPlugin;
+import io.github.edmm.core.transformation.support.ExecutionTask;
+import io.github.edmm.core.transformation.support.TransformationHandle;
+import io.github.edmm.model.DeploymentModel;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TransformationTest {
+
+    private File targetDirectory;
+    private Transformation transformation;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/scenario_iaas.yml");
+        DeploymentModel model = DeploymentModel.of(resource.getFile());
+        targetDirectory = Files.createTempDirectory("edmm-").toFile();
+        transformation = new Transformation(model, Platform.NOOP);
+    }
+
+    @Test
+    public void testStateTransitions() {
+        assertEquals(Transformation.State.READY, transformation.getState());
+        try {
+            transformation.setState(Transformation.State.DONE);
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals(Transformation.State.READY, transformation.getState());
+        }
+        assertFalse(transformation.transition(Transformation.State.TRANSFORMING, Transformation.State.DONE));
+        assertTrue(transformation.transition(Transformation.State.READY, Transformation.State.TRANSFORMING));
+        assertFalse(transformation.transition(Transformation.State.READY, Transformation.State.TRANSFORMING));
+        transformation.setState(Transformation.State.DONE);
+        assertTrue(transformation.getState().isFinal());
+        transformation.cancel();
+        assertEquals(Transformation.State.DONE, transformation.getState());
+    }
+
+    @Test
+    public void testCancelBeforeStart() {
+        ExecutionTask task = new ExecutionTask(new NoopPlugin(), transformation, targetDirectory, targetDirectory);
+        task.cancel();
+        assertEquals(Transformation.State.CANCELED, transformation.getState());
+        task.call();
+        assertEquals(Transformation.State.CANCELED, transformation.getState());
+    }
+
+    @Test
+    public void testCancelRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutionTask task = new ExecutionTask(new BlockingPlugin(started), transformation, targetDirectory, targetDirectory);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> future = executor.submit(task);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            TransformationHandle handle = new TransformationHandle(task, future);
+            handle.cancel();
+            // The future itself is not canceled once running, hence the handle waits for the task to react
+            future.get(10, TimeUnit.SECONDS);
+            assertEquals(Transformation.State.CANCELED, handle.getState());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testListenerEvents() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        transformation.addListener(new TransformationListener() {
+            @Override
+            public void stateChanged(Transformation transformation, Transformation.State previous, Transformation.State current) {
+                events.add(previous + "->" + current);
+            }
+
+            @Override
+            public void phaseStarted(Transformation transformation, String phase) {
+                events.add("start:" + phase);
+            }
+
+            @Override
+            public void phaseFinished(Transformation transformation, String phase, LifecyclePhase.State state) {
+                events.add("finish:" + phase + ":" + state);
+            }
+
+            @Override
+            public void progress(Transformation transformation, int percent) {
+                events.add(percent + "%");
+            }
+        });
+        new ExecutionTask(new NoopPlugin(), transformation, targetDirectory, targetDirectory).call();
+        assertEquals(Transformation.State.DONE, transformation.getState());
+        assertEquals("READY->TRANSFORMING", events.get(0));
+        assertTrue(events.contains("start:" + AbstractLifecycle.TRANSFORMATION));
+        assertTrue(events.contains("finish:" + AbstractLifecycle.TRANSFORMATION + ":DONE"));
+        assertEquals("100%", events.get(events.size() - 2));
+        assertEquals("TRANSFORMING->DONE", events.get(events.size() - 1));
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(targetDirectory);
+    }
+
+    private static class BlockingPlugin extends Plugin<AbstractLifecycle> {
+
+        private final CountDownLatch started;
+
+        BlockingPlugin(CountDownLatch started) {
+            super(Platform.NOOP);
+            this.started = started;
+        }
+
+        @Override
+        public AbstractLifecycle getLifecycle(TransformationContext context) {
+            return new AbstractLifecycle() {
+                @Override
+                public void transform() {
+                    started.countDown();
+                    try {
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.edmm.core.transformation.metrics;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultMetricsTest {
+
+    @Test
+    public void testAggregation() {
+        Metrics metrics = new DefaultMetrics();
+        for (int i = 0; i < 3; i++) {
+            try (Measurement measurement = metrics.start(Metrics.FILE, "deploy.tf")) {
+                measurement.addBytes(10);
+            }
+        }
+        metrics.increment(Metrics.ARTIFACTS_COPIED);
+        metrics.increment(Metrics.ARTIFACTS_COPIED, 2);
+        Map<String, Statistic> files = metrics.getMeasurements().get(Metrics.FILE);
+        assertEquals(3, files.get("deploy.tf").getCount());
+        assertEquals(30, files.get("deploy.tf").getBytes());
+        assertTrue(files.get("deploy.tf").getWallNanos() >= 0);
+        assertEquals(Long.valueOf(3), metrics.getCounters().get(Metrics.ARTIFACTS_COPIED));
+    }
+
+    @Test
+    public void testNoneDiscardsEverything() {
+        try (Measurement measurement = Metrics.NONE.start(Metrics.FILE, "deploy.tf")) {
+            measurement.addBytes(10);
+        }
+        Metrics.NONE.increment(Metrics.ARTIFACTS_COPIED);
+        assertTrue(Metrics.NONE.getMeasurements().isEmpty());
+        assertTrue(Metrics.NONE.getCounters().isEmpty());
+    }
+}
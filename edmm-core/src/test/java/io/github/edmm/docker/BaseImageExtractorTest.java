@@ -0,0 +1,82 @@
+package io.github.edmm.docker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.edmm.model.DeploymentModel;
+import io.github.edmm.model.component.RootComponent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BaseImageExtractorTest {
+
+    private DeploymentModel model;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/scenario_iaas.yml");
+        model = DeploymentModel.of(resource.getFile());
+    }
+
+    @Test
+    public void testSharedPrefix() {
+        Container app = stack("ubuntu", "pet_clinic_ubuntu", "pet_clinic_tomcat", "pet_clinic");
+        Container db = stack("ubuntu", "pet_clinic_ubuntu", "pet_clinic_tomcat", "db");
+        Container dbms = stack("ubuntu", "pet_clinic_ubuntu", "dbms");
+        Container other = stack("ubuntu", "db_ubuntu", "db");
+        List<Container> baseImages = BaseImageExtractor.extract(Arrays.asList(app, db, dbms, other));
+        assertEquals(1, baseImages.size());
+        Container tomcat = baseImages.get(0);
+        assertTrue(tomcat.isShared());
+        assertEquals("pet_clinic_tomcat_base", tomcat.getName());
+        assertEquals(Arrays.asList(component("pet_clinic_ubuntu"), component("pet_clinic_tomcat")), tomcat.getComponents());
+        assertSame(tomcat, app.getSharedBase());
+        assertSame(tomcat, db.getSharedBase());
+        // The shorter prefix is shared with containers using the longer one only
+        assertNull(dbms.getSharedBase());
+        assertNull(other.getSharedBase());
+    }
+
+    @Test
+    public void testPrefixUsedByOtherContainers() {
+        Container app = stack("ubuntu", "pet_clinic_ubuntu", "pet_clinic_tomcat", "pet_clinic");
+        Container db = stack("ubuntu", "pet_clinic_ubuntu", "pet_clinic_tomcat", "db");
+        Container dbms = stack("ubuntu", "pet_clinic_ubuntu", "dbms");
+        Container other = stack("ubuntu", "pet_clinic_ubuntu", "db");
+        List<Container> baseImages = BaseImageExtractor.extract(Arrays.asList(app, db, dbms, other));
+        assertEquals(2, baseImages.size());
+        assertEquals("pet_clinic_tomcat_base", app.getSharedBase().getName());
+        assertEquals("pet_clinic_ubuntu_base", dbms.getSharedBase().getName());
+        assertSame(dbms.getSharedBase(), other.getSharedBase());
+    }
+
+    @Test
+    public void testDifferentImagesAreNotShared() {
+        Container app = stack("ubuntu", "pet_clinic_ubuntu", "pet_clinic_tomcat", "pet_clinic");
+        Container db = stack("debian", "pet_clinic_ubuntu", "pet_clinic_tomcat", "db");
+        assertTrue(BaseImageExtractor.extract(Arrays.asList(app, db)).isEmpty());
+        assertNull(app.getSharedBase());
+    }
+
+    private Container stack(String baseImage, String... names) {
+        List<RootComponent> components = new ArrayList<>();
+        for (String name : names) {
+            components.add(component(name));
+        }
+        Container stack = new Container();
+        stack.setComponents(components);
+        stack.setBaseImage(baseImage);
+        return stack;
+    }
+
+    private RootComponent component(String name) {
+        return model.getComponent(name).orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.edmm.docker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BuildContextArchiveTest {
+
+    private Path source;
+
+    @Before
+    public void init() throws Exception {
+        source = Files.createTempDirectory("edmm-");
+        Files.createDirectories(source.resolve("app/lib"));
+        Files.write(source.resolve("app/lib/app.jar"), "jar".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("install.sh"), "echo install".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(source.toFile());
+    }
+
+    @Test
+    public void testEntries() throws Exception {
+        byte[] tar = archive(false);
+        assertEquals(0, tar.length % 512);
+        assertEquals("install.sh", name(tar, 0));
+        assertEquals("echo install", new String(tar, 512, 12, StandardCharsets.UTF_8));
+        assertEquals("app/lib/app.jar", name(tar, 1024));
+        assertEquals("Dockerfile", name(tar, 2048));
+        assertEquals(12, Long.parseLong(field(tar, 2048 + 124, 12), 8));
+        assertChecksum(tar, 0);
+        // End-of-archive marker
+        assertArrayEquals(new byte[1024], Arrays.copyOfRange(tar, tar.length - 1024, tar.length));
+    }
+
+    @Test
+    public void testDeterministic() throws Exception {
+        assertArrayEquals(archive(false), archive(false));
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        byte[] compressed = archive(true);
+        byte[] tar = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+        assertArrayEquals(archive(false), tar);
+    }
+
+    @Test
+    public void testLongName() throws Exception {
+        String name = Strings.repeat("a", 120);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BuildContextArchive archive = new BuildContextArchive(out, false)) {
+            archive.add(name, new byte[0]);
+        }
+        byte[] tar = out.toByteArray();
+        assertEquals("x", new String(tar, 156, 1, StandardCharsets.US_ASCII));
+        // The length of a PAX record includes its own length prefix
+        assertEquals("130 path=" + name + "\n9 size=0\n", new String(tar, 512, 139, StandardCharsets.UTF_8));
+        assertChecksum(tar, 1024);
+    }
+
+    private byte[] archive(boolean compress) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BuildContextArchive archive = new BuildContextArchive(out, compress)) {
+            archive.add("install.sh", source.resolve("install.sh"));
+            archive.add("app", source.resolve("app"));
+            archive.add("Dockerfile", "FROM ubuntu\n".getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static String name(byte[] tar, int offset) {
+        return field(tar, offset, 100);
+    }
+
+    private static String field(byte[] tar, int offset, int length) {
+        String value = new String(tar, offset, length, StandardCharsets.UTF_8);
+        int end = value.indexOf('\0');
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    private static void assertChecksum(byte[] tar, int offset) {
+        long expected = 0;
+        for (int i = 0; i < 512; i++) {
+            expected += (i >= 148 && i < 156) ? ' ' : tar[offset + i] & 0xff;
+        }
+        assertEquals(expected, Long.parseLong(field(tar, offset + 148, 6), 8));
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.edmm.docker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.github.edmm.model.DeploymentModel;
+import io.github.edmm.model.component.RootComponent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyGraphTest {
+
+    private DeploymentModel model;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/scenario_iaas.yml");
+        model = DeploymentModel.of(resource.getFile());
+    }
+
+    @Test
+    public void testConnectsToBetweenStacks() {
+        Container app = stack("pet_clinic_ubuntu", "pet_clinic_tomcat", "pet_clinic");
+        Container db = stack("db_ubuntu", "dbms", "db");
+        DependencyGraph graph = new DependencyGraph(Arrays.asList(app, db), model.getTopology(), model.getTopologyIndex());
+        assertEquals(Collections.singleton(db), graph.getTargetStacks(app));
+        assertTrue(graph.getTargetStacks(db).isEmpty());
+        assertEquals(Collections.singletonList(db), graph.getStacks(component("db")));
+    }
+
+    @Test
+    public void testSharedComponentUsesFirstStack() {
+        Container app = stack("pet_clinic_ubuntu", "pet_clinic_tomcat", "pet_clinic");
+        Container first = stack("db_ubuntu", "dbms", "db");
+        Container second = stack("db_ubuntu", "dbms", "db");
+        DependencyGraph graph = new DependencyGraph(Arrays.asList(app, first, second), model.getTopology(), model.getTopologyIndex());
+        assertEquals(Arrays.asList(first, second), graph.getStacks(component("dbms")));
+        assertEquals(Collections.singleton(first), graph.getTargetStacks(app));
+        assertEquals(1, graph.edgeSet().size());
+    }
+
+    private Container stack(String... names) {
+        List<RootComponent> components = new ArrayList<>();
+        for (String name : names) {
+            components.add(component(name));
+        }
+        Container stack = new Container();
+        stack.setComponents(components);
+        return stack;
+    }
+
+    private RootComponent component(String name) {
+        return model.getComponent(name).orElseThrow(IllegalStateException::new);
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.edmm.docker;
 
+import java.util.Collections;
+
+import io.github.edmm.docker.support.CacheMount;
 import io.github.edmm.utils.Consts;
 import org.junit.Assert;
 import org.junit.Before;
@@ -63,4 +66,115 @@ public class DockerfileBuilderTest {
                 "CMD [\"hello\"]";
         Assert.assertEquals(expected.trim(), builder.build().trim());
     }
+
+    @Test
+    public void testCacheLayerOrdering() {
+        DockerfileBuilder builder = new DockerfileBuilder()
+                .layerOrdering(DockerfileBuilder.LayerOrdering.CACHE)
+                .from("ubuntu")
+                .workdir("/opt")
+                .env("APP_PORT", "8080")
+                .env("DB_NAME", "petclinic")
+                .layer(DockerfileBuilder.Layer.ARTIFACT)
+                .add("./app.war", "app.war")
+                .layer(DockerfileBuilder.Layer.OPERATION)
+                .add("./create.sh", "create.sh")
+                .run("./create.sh", Collections.emptyList())
+                .add("./configure.sh", "configure.sh")
+                .run("./configure.sh", Collections.singletonList("DB_NAME"))
+                .expose(8080)
+                .layer(DockerfileBuilder.Layer.START)
+                .add("./start.sh", "start.sh")
+                .cmd("./start.sh");
+        String expected = "FROM ubuntu" + Consts.NL +
+                "WORKDIR /opt" + Consts.NL +
+                "ADD ./create.sh create.sh" + Consts.NL +
+                "RUN ./create.sh" + Consts.NL +
+                "ADD ./configure.sh configure.sh" + Consts.NL +
+                "ENV DB_NAME=petclinic" + Consts.NL +
+                "RUN ./configure.sh" + Consts.NL +
+                "ADD ./app.war app.war" + Consts.NL +
+                "ADD ./start.sh start.sh" + Consts.NL +
+                "ENV APP_PORT=8080" + Consts.NL +
+                "EXPOSE 8080" + Consts.NL +
+                "CMD [\"./start.sh\"]";
+        Assert.assertEquals(expected.trim(), builder.build().trim());
+    }
+
+    @Test
+    public void testCacheLayerOrderingKeepsOperationOrder() {
+        // The operations of a component hosted on another one may depend on all of its operations
+        DockerfileBuilder builder = new DockerfileBuilder()
+                .layerOrdering(DockerfileBuilder.LayerOrdering.CACHE)
+                .from("ubuntu")
+                .run("./tomcat_create.sh", Collections.emptyList())
+                .run("./tomcat_configure.sh", Collections.emptyList())
+                .layer(DockerfileBuilder.Layer.ARTIFACT)
+                .add("./app.war", "app.war")
+                .layer(DockerfileBuilder.Layer.OPERATION)
+                .run("./app_create.sh", Collections.emptyList())
+                .run("./app_configure.sh", Collections.emptyList());
+        String expected = "FROM ubuntu" + Consts.NL +
+                "RUN ./tomcat_create.sh" + Consts.NL +
+                "RUN ./tomcat_configure.sh" + Consts.NL +
+                "RUN ./app_create.sh" + Consts.NL +
+                "RUN ./app_configure.sh" + Consts.NL +
+                "ADD ./app.war app.war";
+        Assert.assertEquals(expected.trim(), builder.build().trim());
+    }
+
+    @Test
+    public void testCacheLayerOrderingRequiresAllEnvByDefault() {
+        DockerfileBuilder builder = new DockerfileBuilder()
+                .layerOrdering(DockerfileBuilder.LayerOrdering.CACHE)
+                .from("ubuntu")
+                .env("foo", "bar")
+                .env("foo", "baz")
+                .add("./test.sh", "test.sh")
+                .run("./test.sh");
+        String expected = "FROM ubuntu" + Consts.NL +
+                "ADD ./test.sh test.sh" + Consts.NL +
+                "ENV foo=baz" + Consts.NL +
+                "RUN ./test.sh";
+        Assert.assertEquals(expected.trim(), builder.build().trim());
+    }
+
+    @Test
+    public void testMultiStageBuild() {
+        DockerfileBuilder stage = new DockerfileBuilder()
+                .from("maven", "app_build")
+                .add("./pom.xml", "pom.xml")
+                .run("mvn package", CacheMount.MAVEN);
+        DockerfileBuilder builder = new DockerfileBuilder()
+                .syntax(DockerfileBuilder.DEFAULT_SYNTAX)
+                .stage(stage)
+                .from("openjdk")
+                .copyFrom("app_build", "/target/app.jar", "app.jar")
+                .cmd("java", "-jar", "app.jar");
+        String expected = "# syntax=docker/dockerfile:1" + Consts.NL +
+                "FROM maven AS app_build" + Consts.NL +
+                "ADD ./pom.xml pom.xml" + Consts.NL +
+                "RUN --mount=type=cache,target=/root/.m2 mvn package" + Consts.NL +
+                Consts.NL +
+                "FROM openjdk" + Consts.NL +
+                "COPY --from=app_build /target/app.jar app.jar" + Consts.NL +
+                "CMD [\"java\", \"-jar\", \"app.jar\"]";
+        Assert.assertEquals(expected.trim(), builder.build().trim());
+    }
+
+    @Test
+    public void testCompressionKeepsCacheMountsApart() {
+        DockerfileBuilder builder = new DockerfileBuilder()
+                .compress()
+                .from("ubuntu")
+                .run("apt-get update", CacheMount.APT, CacheMount.APT_LISTS)
+                .run("apt-get install -y curl", CacheMount.APT, CacheMount.APT_LISTS)
+                .run("echo done");
+        String expected = "FROM ubuntu" + Consts.NL +
+                "RUN --mount=type=cache,target=/var/cache/apt,sharing=locked " +
+                "--mount=type=cache,target=/var/lib/apt/lists,sharing=locked apt-get update && \\" + Consts.NL +
+                "    apt-get install -y curl" + Consts.NL +
+                "RUN echo done";
+        Assert.assertEquals(expected.trim(), builder.build().trim());
+    }
 }
@@ -14,6 +14,7 @@ import org.springframework.core.io.ClassPathResource;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -109,4 +110,27 @@ public class DeploymentModelTest {
         String expectedString = FileUtils.readFileToString(expectedResource.getFile(), StandardCharsets.UTF_8);
         assertEquals(expectedString, yaml.toString());
     }
+
+    @Test
+    public void testCopyIsIsolated() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/unit-tests/relations.yml");
+        DeploymentModel model = DeploymentModel.of(resource.getFile());
+        RootComponent tomcat = model.getComponent("tomcat").orElseThrow(IllegalStateException::new);
+        // Populate the relation cache of the original before copying
+        assertEquals(2, tomcat.getRelations().size());
+        DeploymentModel copy = model.copy();
+        RootComponent copiedTomcat = copy.getComponent("tomcat").orElseThrow(IllegalStateException::new);
+        assertNotSame(tomcat, copiedTomcat);
+        assertNotSame(tomcat.getRelations().get(0), copiedTomcat.getRelations().get(0));
+        copiedTomcat.setTransformed(true);
+        copiedTomcat.getRelations().get(0).setTransformed(true);
+        copiedTomcat.getRelations().remove(1);
+        copiedTomcat.getEntity().setValue(RootComponent.TYPE, "compute");
+        assertFalse(tomcat.isTransformed());
+        assertFalse(tomcat.getRelations().get(0).isTransformed());
+        assertEquals(2, tomcat.getRelations().size());
+        assertEquals("software_component", tomcat.getType());
+        assertEquals("compute", copiedTomcat.getType());
+        assertEquals(2, model.getTopology().edgeSet().size());
+    }
 }
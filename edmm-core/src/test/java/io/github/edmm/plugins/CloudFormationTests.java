@@ -19,6 +19,7 @@ public class CloudFormationTests extends PluginTest {
 
     private static final Logger logger = LoggerFactory.getLogger(CloudFormationTests.class);
 
+    private Transformation transformation;
     private TransformationContext context;
 
     public CloudFormationTests() throws Exception {
@@ -30,7 +31,7 @@ public class CloudFormationTests extends PluginTest {
         ClassPathResource sourceResource = new ClassPathResource("templates");
         ClassPathResource templateResource = new ClassPathResource("templates/scenario_iaas.yml");
         DeploymentModel model = DeploymentModel.of(templateResource.getFile());
-        Transformation transformation = mock(Transformation.class);
+        transformation = mock(Transformation.class);
         when(transformation.getModel()).thenReturn(model);
         logger.info("Source directory is '{}'", sourceResource.getFile());
         logger.info("Target directory is '{}'", targetDirectory);
@@ -41,4 +42,10 @@ public class CloudFormationTests extends PluginTest {
     public void testLifecycleExecution() {
         executeLifecycle(new CloudFormationPlugin(), context);
     }
+
+    @Test
+    public void testLifecycleExecutionWithNamingSalt() {
+        when(transformation.getNamingSalt()).thenReturn("salt");
+        executeLifecycle(new CloudFormationPlugin(), context);
+    }
 }
@@ -1,6 +1,8 @@
 package io.github.edmm.plugins;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import io.github.edmm.core.plugin.AbstractLifecycle;
 import io.github.edmm.core.plugin.Plugin;
@@ -27,6 +29,11 @@ public abstract class PluginTest {
         lifecycle.prepare();
         lifecycle.transform();
         lifecycle.cleanup();
+        try {
+            context.getFileAccess().close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @After
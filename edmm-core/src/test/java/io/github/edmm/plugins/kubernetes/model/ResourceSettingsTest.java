@@ -0,0 +1,86 @@
+package io.github.edmm.plugins.kubernetes.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.HorizontalPodAutoscaler;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.github.edmm.core.transformation.TransformationException;
+import io.github.edmm.docker.Container;
+import io.github.edmm.model.DeploymentModel;
+import io.github.edmm.model.component.RootComponent;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResourceSettingsTest {
+
+    private DeploymentModel model;
+
+    @Before
+    public void init() throws Exception {
+        ClassPathResource resource = new ClassPathResource("templates/unit-tests/resources.yml");
+        model = DeploymentModel.of(resource.getFile());
+    }
+
+    @Test
+    public void testComponentsOverrideTheirHosts() {
+        ResourceSettings settings = ResourceSettings.of(stack("ubuntu", "app"));
+        assertEquals("500m", settings.getCpu());
+        assertEquals("1Gi", settings.getMemory());
+        assertNull(settings.getCpuLimit());
+        assertEquals("1Gi", settings.getMemoryLimit());
+        assertEquals(2, settings.getMinReplicas());
+        assertEquals(4, settings.getMaxReplicas());
+        assertEquals(ResourceSettings.DEFAULT_TARGET_CPU_UTILIZATION, settings.getTargetCpuUtilization());
+        assertTrue(settings.isAutoscaled());
+        assertTrue(settings.isReplicated());
+        ResourceRequirements requirements = settings.toResourceRequirements();
+        assertEquals(new Quantity("500m"), requirements.getRequests().get("cpu"));
+        assertFalse(requirements.getLimits().containsKey("cpu"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidReplicas() {
+        ResourceSettings.of(stack("ubuntu", "db"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testInvalidQuantity() {
+        ResourceSettings.of(stack("ubuntu", "cache"));
+    }
+
+    @Test
+    public void testResources() {
+        Container stack = stack("ubuntu", "app");
+        ResourceSettings settings = ResourceSettings.of(stack);
+        DeploymentResource deployment = new DeploymentResource(stack, settings);
+        deployment.build();
+        Deployment resource = (Deployment) deployment.getResource();
+        assertEquals(2, resource.getSpec().getReplicas().intValue());
+        assertEquals(new Quantity("1Gi"), resource.getSpec().getTemplate().getSpec().getContainers().get(0)
+                .getResources().getLimits().get("memory"));
+        AutoscalerResource autoscaler = new AutoscalerResource(stack, settings);
+        autoscaler.build();
+        HorizontalPodAutoscaler hpa = (HorizontalPodAutoscaler) autoscaler.getResource();
+        assertEquals("app", hpa.getSpec().getScaleTargetRef().getName());
+        assertEquals(4, hpa.getSpec().getMaxReplicas().intValue());
+    }
+
+    private Container stack(String... names) {
+        List<RootComponent> components = new ArrayList<>();
+        for (String name : names) {
+            components.add(model.getComponent(name).orElseThrow(IllegalStateException::new));
+        }
+        Container stack = new Container();
+        stack.setComponents(components);
+        return stack;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.edmm.plugins.kubernetes.support;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.edmm.core.plugin.PluginFileAccess;
+import io.github.edmm.docker.Container;
+import io.github.edmm.model.DeploymentModel;
+import io.github.edmm.model.component.RootComponent;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DockerfileBuildingVisitorTest {
+
+    private static final String MODEL = "---\n" +
+            "version: edm_1_0\n" +
+            "components:\n" +
+            "  ubuntu:\n" +
+            "    type: compute\n" +
+            "  tomcat:\n" +
+            "    type: tomcat\n" +
+            "    operations:\n" +
+            "      create: tomcat/create.sh\n" +
+            "    relations:\n" +
+            "      - hosted_on: ubuntu\n" +
+            "  app:\n" +
+            "    type: web_application\n" +
+            "    properties:\n" +
+            "      build_output: target/app.jar\n" +
+            "    operations:\n" +
+            "      create: app/create.sh\n" +
+            "      start: app/start.sh\n" +
+            "    artifacts:\n" +
+            "      - sources: app/pom.xml\n" +
+            "    relations:\n" +
+            "      - hosted_on: tomcat\n" +
+            "component_types:\n" +
+            "  base:\n" +
+            "    extends: null\n" +
+            "    operations:\n" +
+            "      create: ~\n" +
+            "      configure: ~\n" +
+            "      start: ~\n" +
+            "      stop: ~\n" +
+            "      delete: ~\n" +
+            "  compute:\n" +
+            "    extends: base\n" +
+            "  software_component:\n" +
+            "    extends: base\n" +
+            "  web_server:\n" +
+            "    extends: software_component\n" +
+            "    properties:\n" +
+            "      port:\n" +
+            "        type: integer\n" +
+            "        default_value: 80\n" +
+            "  tomcat:\n" +
+            "    extends: web_server\n" +
+            "  web_application:\n" +
+            "    extends: base\n" +
+            "relation_types:\n" +
+            "  depends_on:\n" +
+            "    extends: null\n" +
+            "  hosted_on:\n" +
+            "    extends: depends_on\n";
+
+    private File sourceDirectory;
+    private File targetDirectory;
+    private DeploymentModel model;
+
+    @Before
+    public void init() throws Exception {
+        sourceDirectory = Files.createTempDirectory("edmm-").toFile();
+        targetDirectory = Files.createTempDirectory("edmm-").toFile();
+        write("model.yml", MODEL);
+        write("tomcat/create.sh", "install-tomcat");
+        write("app/create.sh", "build-app");
+        write("app/start.sh", "java -jar target/app.jar");
+        write("app/pom.xml", "<project/>");
+        model = DeploymentModel.of(new File(sourceDirectory, "model.yml"));
+    }
+
+    @Test
+    public void testBuildStageIsBasedOnHosts() throws Exception {
+        Container stack = stack("ubuntu", "tomcat", "app");
+        stack.setBaseImage("library/ubuntu:bionic");
+        try (PluginFileAccess fileAccess = new PluginFileAccess(sourceDirectory, targetDirectory)) {
+            new DockerfileBuildingVisitor(stack, fileAccess).populateDockerfile();
+        }
+        String dockerfile = FileUtils.readFileToString(new File(targetDirectory, "app/Dockerfile"), StandardCharsets.UTF_8);
+        String nl = System.lineSeparator();
+        int hosts = dockerfile.indexOf("FROM library/ubuntu:bionic AS app_base" + nl);
+        int build = dockerfile.indexOf("FROM app_base AS app_build" + nl);
+        int image = dockerfile.indexOf("FROM app_base" + nl);
+        assertTrue(hosts >= 0 && hosts < build && build < image);
+        // Host components are installed once, in the stage both the build stage and the image are based on
+        assertEquals(dockerfile.lastIndexOf("RUN ./tomcat_create.sh"), dockerfile.indexOf("RUN ./tomcat_create.sh"));
+        assertTrue(dockerfile.indexOf("RUN ./tomcat_create.sh") < build);
+        // The create operation and the artifacts of the component are only part of the build stage
+        assertTrue(dockerfile.indexOf("RUN ./app_create.sh") > build && dockerfile.lastIndexOf("./app_create.sh") < image);
+        assertTrue(dockerfile.indexOf("pom.xml") > build && dockerfile.lastIndexOf("pom.xml") < image);
+        assertTrue(dockerfile.indexOf("COPY --from=app_build target/app.jar target/app.jar") > image);
+        assertTrue(dockerfile.indexOf("ENV TOMCAT_PORT") > hosts && dockerfile.lastIndexOf("ENV TOMCAT_PORT") < build);
+        assertTrue(dockerfile.indexOf("CMD [\"./app_start.sh\"]") > image);
+    }
+
+    @After
+    public void destroy() throws Exception {
+        FileUtils.deleteDirectory(sourceDirectory);
+        FileUtils.deleteDirectory(targetDirectory);
+    }
+
+    private Container stack(String... names) {
+        List<RootComponent> components = new ArrayList<>();
+        for (String name : names) {
+            components.add(model.getComponent(name).orElseThrow(IllegalArgumentException::new));
+        }
+        Container stack = new Container();
+        stack.setComponents(components);
+        return stack;
+    }
+
+    private void write(String path, String content) throws Exception {
+        File file = new File(sourceDirectory, path);
+        FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+    }
+}